@@ -0,0 +1,55 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.gamemodel.Ad;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import ee.loki.bbgame.history.GameStep;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// deterministic input data shared by benchmarks, same seed gives same data on every run
+public class BenchmarkData {
+    public static final String[] probabilities = {
+            "Piece of cake", "Walk in the park", "Sure thing", "Quite likely", "Hmmm....", "Gamble",
+            "Risky", "Rather detrimental", "Playing with fire", "Suicide mission", "Impossible",
+    };
+
+    private static final String message =
+            "Create an advertisement campaign for Hagar Eymor to promote their bucket based business";
+
+    // every tenth ad is Base64 encoded like on real server
+    public static Ad[] ads(int count, long seed) {
+        var random = new SplittableRandom(seed);
+        var result = new Ad[count];
+        for (int i = 0; i < count; i++) {
+            var adId = "ad" + Long.toString(random.nextLong(1L << 40), 36);
+            var probability = probabilities[random.nextInt(probabilities.length)];
+            var reward = 5 + random.nextInt(200);
+            var expiresIn = 1 + random.nextInt(7);
+            result[i] = i % 10 == 9
+                    ? new Ad(base64(adId), base64(message), reward, expiresIn, base64(probability), 1)
+                    : new Ad(adId, message, reward, expiresIn, probability, 0);
+        }
+        return result;
+    }
+
+    public static List<GameStep> history(int count, long seed) {
+        var random = new SplittableRandom(seed);
+        var ads = ads(Math.min(count, 1000), seed);
+        var result = new ArrayList<GameStep>(count);
+        for (int i = 0; i < count; i++) {
+            var success = random.nextBoolean();
+            var taskResult = new TaskResult(success, 3, 100, 100 + i, 0, i,
+                    success ? "You successfully solved the mission!" : "You have failed the mission.");
+            result.add(new GameStep("game" + i / 50, ads[i % ads.length].toTask(), taskResult));
+        }
+        return result;
+    }
+
+    public static String base64(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
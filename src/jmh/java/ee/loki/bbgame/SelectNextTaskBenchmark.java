@@ -0,0 +1,55 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.gamemodel.Ad;
+import ee.loki.bbgame.gamemodel.Task;
+import ee.loki.bbgame.history.HistoryStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// task selection from message board. steady: same ads as previous turn, so nothing needs decoding,
+// newBoard: every ad is seen for the first time, rankSteady: whole board ranked instead of picking best
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectNextTaskBenchmark {
+    @Param({"10", "100", "1000"})
+    int boardSize;
+
+    private BBGameActions gameActions;
+    private GameContext gameContext;
+    private Ad[] ads;
+
+    @Setup
+    public void setup() {
+        var historyStore = new HistoryStore(BBGameMain.createObjectMapper());
+        for (var step : BenchmarkData.history(10_000, 1)) {
+            historyStore.addGameStep(step.gameId(), step.attemptedTask(), step.attemptResult());
+        }
+        gameActions = new AppContext.AppContextBuilder()
+                .setHistoryStore(historyStore)
+                .createAppContext()
+                .gameActions;
+        gameContext = new GameContext("game", 5, 1500);
+        ads = BenchmarkData.ads(boardSize, 2);
+    }
+
+    @Benchmark
+    public Task steady() {
+        return gameActions.selectNextTask(gameContext, ads);
+    }
+
+    @Benchmark
+    public List<Task> rankSteady() {
+        return gameActions.rankTasks(gameContext, ads);
+    }
+
+    @Benchmark
+    public Task newBoard() {
+        return gameActions.selectNextTask(new GameContext("game", 5, 1500), ads);
+    }
+}
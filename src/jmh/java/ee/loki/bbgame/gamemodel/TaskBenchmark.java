@@ -0,0 +1,46 @@
+package ee.loki.bbgame.gamemodel;
+
+import ee.loki.bbgame.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Task construction, encrypted tasks decode three Base64 or ROT13 fields in constructor
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskBenchmark {
+    private final String adId = "CPBAbShn";
+    private final String message =
+            "Create an advertisement campaign for Hagar Eymor to promote their bucket based business";
+    private final String probability = "Hmmm....";
+    private final String encodedAdId = BenchmarkData.base64(adId);
+    private final String encodedMessage = BenchmarkData.base64(message);
+    private final String encodedProbability = BenchmarkData.base64(probability);
+    private final String rot13AdId = AdDecoders.rot13(adId);
+    private final String rot13Message = AdDecoders.rot13(message);
+    private final String rot13Probability = AdDecoders.rot13(probability);
+
+    @Benchmark
+    public Task plain() {
+        return new Task(adId, message, 35, 6, probability, 0);
+    }
+
+    @Benchmark
+    public Task base64Encoded() {
+        return new Task(encodedAdId, encodedMessage, 35, 6, encodedProbability, 1);
+    }
+
+    @Benchmark
+    public Task rot13Encoded() {
+        return new Task(rot13AdId, rot13Message, 35, 6, rot13Probability, 2);
+    }
+
+    @Benchmark
+    public Task adToTask() {
+        return new Ad(encodedAdId, encodedMessage, 35, 6, encodedProbability, 1).toTask();
+    }
+}
@@ -0,0 +1,61 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// loading history in every format
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HistoryLoadBenchmark {
+    @Param({"10000", "100000"})
+    int steps;
+
+    @Param({"json", "jsonl", "binary"})
+    String format;
+
+    private final ObjectMapper objectMapper = BBGameMain.createObjectMapper();
+    private Path historyFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        historyFile = Files.createTempFile("bbgame-history", "." + format);
+        Files.delete(historyFile);
+        var history = BenchmarkData.history(steps, 1);
+        if (format.equals(HistoryJournals.json)) {
+            objectMapper.writeValue(historyFile.toFile(), history);
+        } else {
+            try (var journal = HistoryJournals.create(format, historyFile, objectMapper, Duration.ofMinutes(1))) {
+                history.forEach(journal::append);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(historyFile);
+    }
+
+    @Benchmark
+    public HistoryStore load() throws IOException {
+        var historyStore = new HistoryStore(objectMapper);
+        if (format.equals(HistoryJournals.json)) {
+            historyStore.loadGameHistory(historyFile.toString());
+        } else {
+            historyStore.openJournal(HistoryJournals.create(format, historyFile, objectMapper, Duration.ZERO), null);
+            historyStore.closeJournal();
+        }
+        return historyStore;
+    }
+}
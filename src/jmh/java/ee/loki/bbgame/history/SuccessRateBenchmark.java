@@ -0,0 +1,120 @@
+package ee.loki.bbgame.history;
+
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// success rate lookups from many game threads sharing one store, alone and while other games add steps
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SuccessRateBenchmark {
+    @State(Scope.Benchmark)
+    public static class Store {
+        HistoryStore historyStore;
+        List<GameStep> steps;
+
+        @Setup
+        public void setup() throws IOException {
+            historyStore = new HistoryStore(BBGameMain.createObjectMapper(), 1000);
+            steps = BenchmarkData.history(10_000, 1);
+            for (var step : steps) {
+                historyStore.addGameStep(step.gameId(), step.attemptedTask(), step.attemptResult());
+            }
+            // steps added during benchmark are dropped instead of piling up as unsaved
+            historyStore.openJournal(new DiscardingJournal(), null);
+        }
+    }
+
+    static class DiscardingJournal implements HistoryJournal {
+        @Override
+        public void replay(long fromOffset, Consumer<GameStep> consumer) {
+        }
+
+        @Override
+        public long size() {
+            return 0;
+        }
+
+        @Override
+        public List<Long> split(int parts) {
+            return List.of(0L);
+        }
+
+        @Override
+        public void replayRange(long fromOffset, long toOffset, Consumer<GameStep> consumer) {
+        }
+
+        @Override
+        public void setSyncListener(SyncListener listener) {
+        }
+
+        @Override
+        public void append(GameStep gameStep) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = 0;
+
+        String nextProbability() {
+            next = (next + 1) % BenchmarkData.probabilities.length;
+            return BenchmarkData.probabilities[next];
+        }
+
+        GameStep nextStep(List<GameStep> steps) {
+            next = (next + 1) % steps.size();
+            return steps.get(next);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public double threads1(Store store, Cursor cursor) {
+        return store.historyStore.getSuccessRate(cursor.nextProbability());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public double threads8(Store store, Cursor cursor) {
+        return store.historyStore.getSuccessRate(cursor.nextProbability());
+    }
+
+    @Benchmark
+    @Threads(64)
+    public double threads64(Store store, Cursor cursor) {
+        return store.historyStore.getSuccessRate(cursor.nextProbability());
+    }
+
+    // 64 games: 56 selecting next task while 8 record results
+    @Benchmark
+    @Group("mixed64")
+    @GroupThreads(56)
+    public double mixed64Read(Store store, Cursor cursor) {
+        return store.historyStore.getSuccessRate(cursor.nextProbability());
+    }
+
+    @Benchmark
+    @Group("mixed64")
+    @GroupThreads(8)
+    public void mixed64Write(Store store, Cursor cursor) {
+        var step = cursor.nextStep(store.steps);
+        store.historyStore.addGameStep(step.gameId(), step.attemptedTask(), step.attemptResult());
+    }
+}
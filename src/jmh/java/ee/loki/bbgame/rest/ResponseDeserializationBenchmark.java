@@ -0,0 +1,82 @@
+package ee.loki.bbgame.rest;
+
+import ee.loki.bbgame.BBGameConfig;
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.BenchmarkData;
+import ee.loki.bbgame.gamemodel.Ad;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import ee.loki.bbgame.simulator.SimulatedHttpResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// BBGameClient request round trip without network: url building, body handler and json parsing
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseDeserializationBenchmark {
+    private static final String solveBody = """
+            {"success":true,"lives":3,"gold":120,"score":340,"highScore":0,"turn":17,
+            "message":"You successfully solved the mission!"}""";
+
+    @Param({"10", "100"})
+    int boardSize;
+
+    private BBGameClient client;
+
+    // answers every request with the same body, fed through the body handler the same way HttpClient does
+    private static class CannedHttpClient implements IHttpClient {
+        private final byte[] messagesBody;
+        private final byte[] solveBody;
+        private final HttpHeaders headers = HttpHeaders.of(Map.of(), (name, value) -> true);
+
+        CannedHttpClient(byte[] messagesBody, byte[] solveBody) {
+            this.messagesBody = messagesBody;
+            this.solveBody = solveBody;
+        }
+
+        @Override
+        public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException {
+            var bytes = request.uri().getPath().endsWith("/messages") ? messagesBody : solveBody;
+            return SimulatedHttpResponse.of(request, 200, headers, bytes, responseBodyHandler);
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+            try {
+                return CompletableFuture.completedFuture(send(request, responseBodyHandler));
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        var objectMapper = BBGameMain.createObjectMapper();
+        var messagesBody = objectMapper.writeValueAsBytes(BenchmarkData.ads(boardSize, 3));
+        var httpClient = new CannedHttpClient(messagesBody, solveBody.getBytes(StandardCharsets.UTF_8));
+        client = new BBGameClient(new BBGameConfig(new Properties()), objectMapper, httpClient);
+    }
+
+    @Benchmark
+    public Ad[] messages() throws IOException, InterruptedException {
+        return client.getAds("game");
+    }
+
+    @Benchmark
+    public TaskResult solve() throws IOException, InterruptedException {
+        return client.tryResolveTask("game", "CPBAbShn");
+    }
+}
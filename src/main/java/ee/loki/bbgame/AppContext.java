@@ -2,9 +2,15 @@ package ee.loki.bbgame;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ee.loki.bbgame.history.HistoryStore;
+import ee.loki.bbgame.rest.AdaptiveLimitHttpClient;
+import ee.loki.bbgame.rest.BBGameAsyncClient;
 import ee.loki.bbgame.rest.BBGameClient;
+import ee.loki.bbgame.rest.CircuitBreaker;
 import ee.loki.bbgame.rest.HttpClientWrapper;
 import ee.loki.bbgame.rest.IHttpClient;
+import ee.loki.bbgame.rest.ShopCatalogCache;
+import ee.loki.bbgame.simulator.GameSimulator;
+import ee.loki.bbgame.simulator.SimulatorHttpClient;
 
 import java.util.Properties;
 
@@ -12,17 +18,27 @@ public class AppContext {
     public final ObjectMapper objectMapper;
     public final BBGameConfig config;
     public final IHttpClient httpClient;
+    public final ShopCatalogCache shopCatalogCache;
+    public final CircuitBreaker circuitBreaker;
     public final BBGameClient gameClient;
+    public final BBGameAsyncClient asyncGameClient;
     public final HistoryStore historyStore;
+    public final GameStrategies strategies;
     public final BBGameActions gameActions;
 
-    private AppContext(ObjectMapper objectMapper, BBGameConfig config, IHttpClient httpClient, BBGameClient gameClient,
-                       HistoryStore historyStore, BBGameActions gameActions) {
+    private AppContext(ObjectMapper objectMapper, BBGameConfig config, IHttpClient httpClient,
+                       ShopCatalogCache shopCatalogCache, CircuitBreaker circuitBreaker, BBGameClient gameClient,
+                       BBGameAsyncClient asyncGameClient, HistoryStore historyStore, GameStrategies strategies,
+                       BBGameActions gameActions) {
         this.objectMapper = objectMapper;
         this.config = config;
         this.httpClient = httpClient;
+        this.shopCatalogCache = shopCatalogCache;
+        this.circuitBreaker = circuitBreaker;
         this.gameClient = gameClient;
+        this.asyncGameClient = asyncGameClient;
         this.historyStore = historyStore;
+        this.strategies = strategies;
         this.gameActions = gameActions;
     }
 
@@ -31,8 +47,12 @@ public class AppContext {
         private ObjectMapper objectMapper;
         private BBGameConfig config;
         private IHttpClient httpClient;
+        private ShopCatalogCache shopCatalogCache;
+        private CircuitBreaker circuitBreaker;
         private BBGameClient gameClient;
+        private BBGameAsyncClient asyncGameClient;
         private HistoryStore historyStore;
+        private GameStrategies strategies;
         private BBGameActions gameRunner;
 
         public AppContextBuilder setPropsFileName(String propsFileName) {
@@ -55,16 +75,36 @@ public class AppContext {
             return this;
         }
 
+        public AppContextBuilder setShopCatalogCache(ShopCatalogCache shopCatalogCache) {
+            this.shopCatalogCache = shopCatalogCache;
+            return this;
+        }
+
+        public AppContextBuilder setCircuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
         public AppContextBuilder setGameClient(BBGameClient gameClient) {
             this.gameClient = gameClient;
             return this;
         }
 
+        public AppContextBuilder setAsyncGameClient(BBGameAsyncClient asyncGameClient) {
+            this.asyncGameClient = asyncGameClient;
+            return this;
+        }
+
         public AppContextBuilder setHistoryStore(HistoryStore historyStore) {
             this.historyStore = historyStore;
             return this;
         }
 
+        public AppContextBuilder setStrategies(GameStrategies strategies) {
+            this.strategies = strategies;
+            return this;
+        }
+
         public AppContextBuilder setGameRunner(BBGameActions gameRunner) {
             this.gameRunner = gameRunner;
             return this;
@@ -82,18 +122,36 @@ public class AppContext {
                 }
             }
             if (httpClient == null) {
-                httpClient = new HttpClientWrapper(config);
+                httpClient = config.simulator
+                        ? new SimulatorHttpClient(new GameSimulator(config.simulatorSeed, objectMapper), config)
+                        : new HttpClientWrapper(config);
+                if (config.adaptiveLimit) {
+                    httpClient = new AdaptiveLimitHttpClient(httpClient, config);
+                }
+            }
+            if (shopCatalogCache == null) {
+                shopCatalogCache = new ShopCatalogCache(config.shopCacheTtlTurns);
+            }
+            if (circuitBreaker == null) {
+                circuitBreaker = new CircuitBreaker(config.circuitFailureThreshold, config.circuitOpenDuration);
             }
             if (gameClient == null) {
-                gameClient = new BBGameClient(config, objectMapper, httpClient);
+                gameClient = new BBGameClient(config, objectMapper, httpClient, shopCatalogCache, circuitBreaker);
+            }
+            if (asyncGameClient == null) {
+                asyncGameClient = new BBGameAsyncClient(config, objectMapper, httpClient, shopCatalogCache, circuitBreaker);
             }
             if (historyStore == null) {
-                historyStore = new HistoryStore(objectMapper);
+                historyStore = new HistoryStore(objectMapper, config.historyRetainedSteps, config.statsMinSamples);
+            }
+            if (strategies == null) {
+                strategies = new GameStrategies(config);
             }
             if (gameRunner == null) {
-                gameRunner = new BBGameActions(gameClient, historyStore);
+                gameRunner = new BBGameActions(gameClient, asyncGameClient, historyStore, strategies);
             }
-            return new AppContext(objectMapper, config, httpClient, gameClient, historyStore, gameRunner);
+            return new AppContext(objectMapper, config, httpClient, shopCatalogCache, circuitBreaker, gameClient,
+                    asyncGameClient, historyStore, strategies, gameRunner);
         }
     }
 }
@@ -1,13 +1,17 @@
 package ee.loki.bbgame;
 
 import ee.loki.bbgame.gamemodel.*;
+import ee.loki.bbgame.history.DragonState;
 import ee.loki.bbgame.history.HistoryStore;
+import ee.loki.bbgame.rest.BBGameAsyncClient;
 import ee.loki.bbgame.rest.BBGameClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 // this class IS thread safe
 public class BBGameActions {
@@ -15,12 +19,17 @@ public class BBGameActions {
     public static final String healthPotionId = "hpot";
 
     private final BBGameClient gameClient;
+    private final BBGameAsyncClient asyncGameClient;
     private final HistoryStore historyStore;
+    private final GameStrategies strategies;
 
 
-    public BBGameActions(BBGameClient gameClient, HistoryStore historyStore) {
+    public BBGameActions(BBGameClient gameClient, BBGameAsyncClient asyncGameClient, HistoryStore historyStore,
+                         GameStrategies strategies) {
         this.gameClient = gameClient;
+        this.asyncGameClient = asyncGameClient;
         this.historyStore = historyStore;
+        this.strategies = strategies;
     }
 
     GameContext startGame(int minimumLives, int targetScore) throws IOException, InterruptedException {
@@ -30,71 +39,107 @@ public class BBGameActions {
         result.lives = game.lives();
         result.level = game.level();
         result.score = game.score();
+        result.turn = game.turn();
+        result.strategy = strategies.assign();
+        logger.info("Game {} is played with strategy {}", result.gameId, result.strategy.name());
         return result;
     }
 
-    // select next task based on statistical probability * reward value, preferring tasks that expire sooner
-    Task selectNextTask(GameContext context) throws IOException, InterruptedException {
-        var tasks = gameClient.getTasks(context.gameId);
-        double bestValue = -1;
-        int bestExpire = Integer.MAX_VALUE;
-        Task bestTask = null;
-        for (Task task : tasks) {
-            var currentValue = historyStore.getSuccessRate(task.probability()) * task.reward();
-            if (currentValue >= bestValue) {
-                if (currentValue > bestValue || task.expiresIn() < bestExpire) {
-                    bestValue = currentValue;
-                    bestExpire = task.expiresIn();
-                    bestTask = task;
-                }
-            }
+    // records game in metrics of its strategy and releases per game state held by clients.
+    // start request is not sent for the game id, so it is added here
+    void finishGame(GameContext context) {
+        var requests = 1 + gameClient.getRequestCount(context.gameId) + asyncGameClient.getRequestCount(context.gameId);
+        strategyOf(context).metrics().addGame(context.score, context.turn, requests);
+        gameClient.forgetGame(context.gameId);
+        asyncGameClient.forgetGame(context.gameId);
+    }
+
+    private GameStrategies.Entry strategyOf(GameContext context) {
+        if (context.strategy == null) {
+            context.strategy = strategies.assign();
         }
-        return bestTask;
+        return context.strategy;
+    }
+
+    // board is scored with success rate * reward, success rate is taken for dragon's current level and task kind
+    // when history has enough of those. Strategy of the game picks task from scored board
+    Task selectNextTask(GameContext context) throws IOException, InterruptedException {
+        return selectNextTask(context, gameClient.getAds(context.gameId));
+    }
+
+    Task selectNextTask(GameContext context, Ad[] ads) {
+        var strategy = strategyOf(context);
+        var start = System.nanoTime();
+        var result = strategy.strategy().selectTask(context, scoreTasks(context, ads));
+        strategy.metrics().addDecision(System.nanoTime() - start);
+        return result;
+    }
+
+    // all eligible tasks on board, best first
+    List<Task> rankTasks(GameContext context, Ad[] ads) {
+        return scoreTasks(context, ads).ranked();
+    }
+
+    // whole board is scored against one success rate table
+    private TaskScorer scoreTasks(GameContext context, Ad[] ads) {
+        var tasks = context.messageBoard.update(ads);
+        return context.taskScorer.score(tasks, historyStore.getSuccessRateTable(), context.level);
+    }
+
+    // requests for prefetching turn data, results are applied with doShopping and selectNextTask
+    CompletableFuture<ShopItem[]> fetchShopItems(GameContext context) {
+        return asyncGameClient.getShopItems(context.gameId);
+    }
+
+    CompletableFuture<Ad[]> fetchAds(GameContext context) {
+        return asyncGameClient.getAds(context.gameId);
     }
 
     void resolveTask(GameContext context, Task nextTask) throws IOException, InterruptedException {
+        var dragonState = new DragonState(context.level, context.lives, context.gold);
         var taskResult = gameClient.tryResolveTask(context.gameId, nextTask.adId());
         context.lives = taskResult.lives();
         context.gold = taskResult.gold();
         context.score = taskResult.score();
+        context.turn = taskResult.turn();
 
         logger.info("Task result: {}", taskResult);
 
-        historyStore.addGameStep(context.gameId, nextTask, taskResult);
+        historyStore.addGameStep(context.gameId, nextTask, taskResult, dragonState);
     }
 
 
-    // if lives are below minimumLives try to buy health potion
-    // otherwise try to buy an upgrade
-    void doShopping(GameContext context) throws IOException, InterruptedException {
-        var items = gameClient.getShopItems(context.gameId);
-        if (context.lives < context.minimumLives) {
-            var healthPrice = findHealthPrice(items);
-            if (healthPrice > 0 && context.gold >= healthPrice) {
-                buyItem(context, healthPotionId);
+    // buys item strategy of the game picked, by default health potion when lives are below minimumLives,
+    // otherwise an upgrade. When purchase fails, strategy picks again from the items not tried yet.
+    // returns true if something was bought, purchase takes a turn and message board fetched before it may be stale
+    boolean doShopping(GameContext context) throws IOException, InterruptedException {
+        return doShopping(context, gameClient.getShopItems(context.gameId));
+    }
+
+    boolean doShopping(GameContext context, ShopItem[] items) throws IOException, InterruptedException {
+        var strategy = strategyOf(context);
+        var candidates = items;
+        while (true) {
+            var start = System.nanoTime();
+            var itemId = strategy.strategy().selectPurchase(context, candidates);
+            strategy.metrics().addDecision(System.nanoTime() - start);
+            if (itemId == null) {
+                return false;
             }
-        } else {
-            for (var shopItem : items) {
-                if (!healthPotionId.equals(shopItem.id()) && !context.boughtUpgrades.contains(shopItem.id())) {
-                    if (shopItem.cost() <= context.gold) {
-                        if (buyItem(context, shopItem.id())) {
-                            context.boughtUpgrades.add(shopItem.id());
-                            break;
-                        }
-                    }
+            if (buyItem(context, itemId)) {
+                if (!healthPotionId.equals(itemId)) {
+                    context.boughtUpgrades.add(itemId);
                 }
+                return true;
             }
+            var remaining = Arrays.stream(candidates).filter(item -> !item.id().equals(itemId)).toArray(ShopItem[]::new);
+            if (remaining.length == candidates.length) {
+                return false;
+            }
+            candidates = remaining;
         }
     }
 
-    private int findHealthPrice(ShopItem[] items) {
-        return Arrays.stream(items)
-                .filter(item -> healthPotionId.equals(item.id()))
-                .findFirst()
-                .map(ShopItem::cost)
-                .orElse(0);
-    }
-
     private boolean buyItem(GameContext context, String itemId) throws IOException, InterruptedException {
         var result = gameClient.tryBuyItem(context.gameId, itemId);
         if (!result.shoppingSuccess()) {
@@ -103,6 +148,7 @@ public class BBGameActions {
         context.level = result.level();
         context.lives = result.lives();
         context.gold = result.gold();
+        context.turn = result.turn();
         return  result.shoppingSuccess();
     }
 }
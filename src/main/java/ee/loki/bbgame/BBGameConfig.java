@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileInputStream;
+import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.Properties;
 
@@ -14,15 +15,87 @@ public class BBGameConfig {
     public static final String defaultConnectTimeoutSec = "10";
     public static final String defaultReadTimeoutSec = "10";
     public static final String defaultHistoryFile = "gamehistory.json";
+    public static final String defaultHistoryFormat = "jsonl";
+    public static final String defaultHistoryJournalFile = "gamehistory.jsonl";
+    public static final String defaultHistoryBinaryFile = "gamehistory.bin";
+    public static final String defaultHistoryFsyncMs = "1000";
+    public static final String defaultHistoryRetainedSteps = "1000";
+    public static final String defaultStatsMinSamples = "30";
+    public static final String defaultHistorySnapshotFile = "gamehistory.snapshot.json";
+    public static final String defaultHistorySnapshotIntervalMs = "60000";
+    public static final String defaultStrategies = "greedy";
+    public static final String defaultPlannerDepth = "3";
+    public static final String defaultPlannerBudgetMs = "20";
+    public static final String defaultPlannerParallelism = "0";
     public static final String defaultMinimumLives = "5";
     public static final String defaultTargetScore = "1500";
+    public static final String defaultConcurrentGames = "1";
+    public static final String defaultTotalGames = "1";
+    public static final String defaultHttpVersion = "HTTP_1_1";
+    public static final String defaultHttpExecutor = "default";
+    public static final String defaultHttpExecutorThreads = "8";
+    public static final String defaultKeepAliveTimeoutSec = "1200";
+    public static final String defaultConnectionPoolSize = "0";
+    public static final String defaultMaxRequestsPerHost = "0";
+    public static final String defaultPipelinedTurns = "false";
+    public static final String defaultShopCacheTtlTurns = "10";
+    public static final String defaultRetryMaxAttempts = "3";
+    public static final String defaultRetryBaseDelayMs = "100";
+    public static final String defaultRetryMaxDelayMs = "5000";
+    public static final String defaultCircuitFailureThreshold = "20";
+    public static final String defaultCircuitOpenMs = "5000";
+    public static final String defaultAdaptiveLimit = "false";
+    public static final String defaultAdaptiveLimitInitial = "10";
+    public static final String defaultAdaptiveLimitMin = "2";
+    public static final String defaultAdaptiveLimitMax = "200";
+    public static final String defaultSimulator = "false";
+    public static final String defaultSimulatorSeed = "42";
+    public static final String defaultSimulatorLatencyMs = "0";
+    public static final String defaultSimulatorLatencyJitterMs = "0";
+    public static final String defaultSimulatorPort = "8080";
 
     public final String serverUrl;
     public final Duration connectTimeout;
     public final Duration readTimeout;
     public final String historyFileName;
+    public final String historyFormat;
+    public final String historyJournalFile;
+    public final String historyBinaryFile;
+    public final Duration historyFsyncInterval;
+    public final int historyRetainedSteps;
+    public final int statsMinSamples;
+    public final String historySnapshotFile;
+    public final Duration historySnapshotInterval;
+    public final String strategies;
+    public final int plannerDepth;
+    public final Duration plannerBudget;
+    public final int plannerParallelism;
     public final int minimumLives;
     public final int targetScore;
+    public final int concurrentGames;
+    public final int totalGames;
+    public final HttpClient.Version httpVersion;
+    public final String httpExecutor;
+    public final int httpExecutorThreads;
+    public final Duration keepAliveTimeout;
+    public final int connectionPoolSize;
+    public final int maxRequestsPerHost;
+    public final boolean pipelinedTurns;
+    public final int shopCacheTtlTurns;
+    public final int retryMaxAttempts;
+    public final Duration retryBaseDelay;
+    public final Duration retryMaxDelay;
+    public final int circuitFailureThreshold;
+    public final Duration circuitOpenDuration;
+    public final boolean adaptiveLimit;
+    public final int adaptiveLimitInitial;
+    public final int adaptiveLimitMin;
+    public final int adaptiveLimitMax;
+    public final boolean simulator;
+    public final long simulatorSeed;
+    public final Duration simulatorLatency;
+    public final Duration simulatorLatencyJitter;
+    public final int simulatorPort;
 
     public BBGameConfig(String propsFileName) {
         this(loadProperties(propsFileName));
@@ -33,8 +106,45 @@ public class BBGameConfig {
         connectTimeout = Duration.ofSeconds(Integer.parseInt(props.getProperty("connectTimeoutSec", defaultConnectTimeoutSec)));
         readTimeout = Duration.ofSeconds(Integer.parseInt(props.getProperty("readTimeoutSec", defaultReadTimeoutSec)));
         historyFileName = props.getProperty("historyFile", defaultHistoryFile);
+        historyFormat = props.getProperty("historyFormat", defaultHistoryFormat);
+        historyJournalFile = props.getProperty("historyJournalFile", defaultHistoryJournalFile);
+        historyBinaryFile = props.getProperty("historyBinaryFile", defaultHistoryBinaryFile);
+        historyFsyncInterval = Duration.ofMillis(Integer.parseInt(props.getProperty("historyFsyncMs", defaultHistoryFsyncMs)));
+        historyRetainedSteps = Integer.parseInt(props.getProperty("historyRetainedSteps", defaultHistoryRetainedSteps));
+        statsMinSamples = Integer.parseInt(props.getProperty("statsMinSamples", defaultStatsMinSamples));
+        historySnapshotFile = props.getProperty("historySnapshotFile", defaultHistorySnapshotFile);
+        historySnapshotInterval = Duration.ofMillis(Integer.parseInt(props.getProperty("historySnapshotIntervalMs",
+                defaultHistorySnapshotIntervalMs)));
+        strategies = props.getProperty("strategies", defaultStrategies);
+        plannerDepth = Integer.parseInt(props.getProperty("plannerDepth", defaultPlannerDepth));
+        plannerBudget = Duration.ofMillis(Integer.parseInt(props.getProperty("plannerBudgetMs", defaultPlannerBudgetMs)));
+        plannerParallelism = Integer.parseInt(props.getProperty("plannerParallelism", defaultPlannerParallelism));
         minimumLives = Integer.parseInt(props.getProperty("minimumLives", defaultMinimumLives));
         targetScore = Integer.parseInt(props.getProperty("targetScore", defaultTargetScore));
+        concurrentGames = Integer.parseInt(props.getProperty("concurrentGames", defaultConcurrentGames));
+        totalGames = Integer.parseInt(props.getProperty("totalGames", defaultTotalGames));
+        httpVersion = HttpClient.Version.valueOf(props.getProperty("httpVersion", defaultHttpVersion));
+        httpExecutor = props.getProperty("httpExecutor", defaultHttpExecutor);
+        httpExecutorThreads = Integer.parseInt(props.getProperty("httpExecutorThreads", defaultHttpExecutorThreads));
+        keepAliveTimeout = Duration.ofSeconds(Integer.parseInt(props.getProperty("keepAliveTimeoutSec", defaultKeepAliveTimeoutSec)));
+        connectionPoolSize = Integer.parseInt(props.getProperty("connectionPoolSize", defaultConnectionPoolSize));
+        maxRequestsPerHost = Integer.parseInt(props.getProperty("maxRequestsPerHost", defaultMaxRequestsPerHost));
+        pipelinedTurns = Boolean.parseBoolean(props.getProperty("pipelinedTurns", defaultPipelinedTurns));
+        shopCacheTtlTurns = Integer.parseInt(props.getProperty("shopCacheTtlTurns", defaultShopCacheTtlTurns));
+        retryMaxAttempts = Integer.parseInt(props.getProperty("retryMaxAttempts", defaultRetryMaxAttempts));
+        retryBaseDelay = Duration.ofMillis(Integer.parseInt(props.getProperty("retryBaseDelayMs", defaultRetryBaseDelayMs)));
+        retryMaxDelay = Duration.ofMillis(Integer.parseInt(props.getProperty("retryMaxDelayMs", defaultRetryMaxDelayMs)));
+        circuitFailureThreshold = Integer.parseInt(props.getProperty("circuitFailureThreshold", defaultCircuitFailureThreshold));
+        circuitOpenDuration = Duration.ofMillis(Integer.parseInt(props.getProperty("circuitOpenMs", defaultCircuitOpenMs)));
+        adaptiveLimit = Boolean.parseBoolean(props.getProperty("adaptiveLimit", defaultAdaptiveLimit));
+        adaptiveLimitInitial = Integer.parseInt(props.getProperty("adaptiveLimitInitial", defaultAdaptiveLimitInitial));
+        adaptiveLimitMin = Integer.parseInt(props.getProperty("adaptiveLimitMin", defaultAdaptiveLimitMin));
+        adaptiveLimitMax = Integer.parseInt(props.getProperty("adaptiveLimitMax", defaultAdaptiveLimitMax));
+        simulator = Boolean.parseBoolean(props.getProperty("simulator", defaultSimulator));
+        simulatorSeed = Long.parseLong(props.getProperty("simulatorSeed", defaultSimulatorSeed));
+        simulatorLatency = Duration.ofMillis(Integer.parseInt(props.getProperty("simulatorLatencyMs", defaultSimulatorLatencyMs)));
+        simulatorLatencyJitter = Duration.ofMillis(Integer.parseInt(props.getProperty("simulatorLatencyJitterMs", defaultSimulatorLatencyJitterMs)));
+        simulatorPort = Integer.parseInt(props.getProperty("simulatorPort", defaultSimulatorPort));
     }
 
 
@@ -2,10 +2,18 @@ package ee.loki.bbgame;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.history.HistoryJournals;
+import ee.loki.bbgame.history.HistorySnapshotStore;
+import ee.loki.bbgame.rest.BBGameAsyncClient;
+import ee.loki.bbgame.rest.HttpClientWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 public class BBGameMain {
     private static final Logger logger = LoggerFactory.getLogger(BBGameMain.class);
@@ -13,11 +21,30 @@ public class BBGameMain {
     public static void main(String[] args) {
         logger.info("Starting BBGameMain");
         try {
-          var appContext = new AppContext.AppContextBuilder().setPropsFileName("bbgame.properties").createAppContext();
+          var config = new BBGameConfig("bbgame.properties");
+          HttpClientWrapper.configureConnectionPool(config);
+          var appContext = new AppContext.AppContextBuilder().setConfig(config).createAppContext();
+          openHistory(appContext);
+          var runner = new MultiGameRunner(appContext);
+          var finished = new CountDownLatch(1);
+          Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+              // on SIGTERM/ctrl-c let running games finish their turn and history get saved before JVM exits
+              runner.requestStop();
+              try {
+                  finished.await(appContext.config.readTimeout.multipliedBy(2).toMillis(), TimeUnit.MILLISECONDS);
+              } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+              }
+          }, "shutdown"));
           try {
-              runGame(appContext);
+              runner.run();
           } finally {
-              appContext.historyStore.saveGameHistory(appContext.config.historyFileName);
+              try {
+                  closeHistory(appContext);
+              } finally {
+                  appContext.httpClient.close();
+                  finished.countDown();
+              }
           }
         } catch (Exception e) {
           logger.error("Exception thrown", e);
@@ -25,10 +52,59 @@ public class BBGameMain {
         logger.info("Finished BBGameMain");
     }
 
-    static void runGame(AppContext appContext) throws IOException, InterruptedException {
+    // json: whole history is read on start and rewritten on exit
+    // jsonl, binary: steps are appended to journal as they happen, legacy json file is imported on first start.
+    // statistics come from snapshot and journal tail after it
+    static void openHistory(AppContext appContext) throws IOException {
+        var config = appContext.config;
+        var format = config.historyFormat;
+        if (format.equals(HistoryJournals.json)) {
+            appContext.historyStore.loadGameHistory(config.historyFileName);
+            return;
+        }
+        if (!format.equals(HistoryJournals.jsonLines) && !format.equals(HistoryJournals.binary)) {
+            logger.error("Unknown history format '{}', using jsonl", format);
+            format = HistoryJournals.jsonLines;
+        }
+        var journalFile = format.equals(HistoryJournals.binary) ? config.historyBinaryFile : config.historyJournalFile;
+        var journal = HistoryJournals.create(format, Path.of(journalFile), appContext.objectMapper,
+                config.historyFsyncInterval);
+        var snapshots = config.historySnapshotFile.isEmpty() ? null : new HistorySnapshotStore(appContext.objectMapper,
+                Path.of(config.historySnapshotFile), journalFile, config.historySnapshotInterval);
+        appContext.historyStore.openJournal(journal, snapshots, config.historyFileName);
+    }
+
+    static void closeHistory(AppContext appContext) throws IOException {
+        if (appContext.config.historyFormat.equals(HistoryJournals.json)) {
+            appContext.historyStore.saveGameHistory(appContext.config.historyFileName);
+        } else {
+            appContext.historyStore.closeJournal();
+        }
+    }
+
+    static GameContext runGame(AppContext appContext, BooleanSupplier stopRequested) throws IOException, InterruptedException {
         var gameContext = appContext.gameActions.startGame(appContext.config.minimumLives, appContext.config.targetScore);
 
-        while (gameContext.lives > 0 && gameContext.score < appContext.config.targetScore) {
+        try {
+            if (appContext.config.pipelinedTurns) {
+                playPipelinedTurns(appContext, gameContext, stopRequested);
+            } else {
+                playTurns(appContext, gameContext, stopRequested);
+            }
+        } finally {
+            appContext.gameActions.finishGame(gameContext);
+        }
+        logger.info("Finished game {}. Score: {}. Level: {}", gameContext.gameId, gameContext.score, gameContext.level);
+        return gameContext;
+    }
+
+    private static boolean isGameRunning(AppContext appContext, GameContext gameContext, BooleanSupplier stopRequested) {
+        return gameContext.lives > 0 && gameContext.score < appContext.config.targetScore && !stopRequested.getAsBoolean();
+    }
+
+    private static void playTurns(AppContext appContext, GameContext gameContext, BooleanSupplier stopRequested)
+            throws IOException, InterruptedException {
+        while (isGameRunning(appContext, gameContext, stopRequested)) {
             appContext.gameActions.doShopping(gameContext);
             var nextTask = appContext.gameActions.selectNextTask(gameContext);
             if (nextTask == null) {
@@ -37,7 +113,41 @@ public class BBGameMain {
             }
             appContext.gameActions.resolveTask(gameContext, nextTask);
         }
-        logger.info("Finished game. Score: {}. Level: {}", gameContext.score, gameContext.level);
+    }
+
+    // shop items and message board are requested together, and for the next turn already when task result arrives.
+    // results are applied in the same order as in playTurns: shopping first, then task selection
+    private static void playPipelinedTurns(AppContext appContext, GameContext gameContext, BooleanSupplier stopRequested)
+            throws IOException, InterruptedException {
+        var gameActions = appContext.gameActions;
+        if (!isGameRunning(appContext, gameContext, stopRequested)) {
+            return;
+        }
+        var shopItems = gameActions.fetchShopItems(gameContext);
+        var ads = gameActions.fetchAds(gameContext);
+        try {
+            while (true) {
+                if (gameActions.doShopping(gameContext, BBGameAsyncClient.await(shopItems))) {
+                    // ads expiring this turn are gone after purchase
+                    ads.cancel(false);
+                    ads = gameActions.fetchAds(gameContext);
+                }
+                var nextTask = gameActions.selectNextTask(gameContext, BBGameAsyncClient.await(ads));
+                if (nextTask == null) {
+                    logger.info("Giving up, no more eligible tasks");
+                    break;
+                }
+                gameActions.resolveTask(gameContext, nextTask);
+                if (!isGameRunning(appContext, gameContext, stopRequested)) {
+                    break;
+                }
+                shopItems = gameActions.fetchShopItems(gameContext);
+                ads = gameActions.fetchAds(gameContext);
+            }
+        } finally {
+            shopItems.cancel(false);
+            ads.cancel(false);
+        }
     }
 
     public static ObjectMapper createObjectMapper() {
@@ -1,15 +1,23 @@
 package ee.loki.bbgame;
 
+import ee.loki.bbgame.gamemodel.MessageBoard;
+
 import java.util.HashSet;
 import java.util.Set;
 
-class GameContext {
+// state of one game, fields are updated by BBGameActions and read by strategies through getters
+public class GameContext {
     final String gameId;
     int level;
     int lives;
     int gold;
     int score;
+    int turn;
     final Set<String> boughtUpgrades = new HashSet<>();
+    final MessageBoard messageBoard = new MessageBoard();
+    final TaskScorer taskScorer = new TaskScorer();
+    // assigned when game starts, or on first decision for games not started by BBGameActions
+    GameStrategies.Entry strategy;
 
     final int minimumLives;
     final int targetScore;
@@ -20,4 +28,40 @@ class GameContext {
         this.minimumLives = minimumLives;
         this.targetScore = targetScore;
     }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public int getGold() {
+        return gold;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getTurn() {
+        return turn;
+    }
+
+    public int getMinimumLives() {
+        return minimumLives;
+    }
+
+    public int getTargetScore() {
+        return targetScore;
+    }
+
+    public boolean hasBought(String itemId) {
+        return boughtUpgrades.contains(itemId);
+    }
 }
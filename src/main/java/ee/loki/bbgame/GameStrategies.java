@@ -0,0 +1,71 @@
+package ee.loki.bbgame;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// strategies listed in strategies property, games are assigned to them in turn as they start.
+// a name listed twice gets twice as many games, every name has one strategy instance and one set of metrics.
+// names are looked up among built-in strategies first, then among providers found with ServiceLoader
+// this class IS thread safe
+public class GameStrategies {
+    private static final Logger logger = LoggerFactory.getLogger(GameStrategies.class);
+
+    public record Entry(String name, GameStrategy strategy, StrategyMetrics metrics) {}
+
+    private final List<Entry> assignments;
+    private final Map<String, Entry> entries;
+    private final AtomicInteger nextAssignment = new AtomicInteger();
+
+    public GameStrategies(BBGameConfig config) {
+        var providers = new LinkedHashMap<String, GameStrategyProvider>();
+        for (var provider : List.of(new GreedyStrategy.Provider(), new PlannerStrategy.Provider())) {
+            providers.put(provider.name(), provider);
+        }
+        for (var provider : ServiceLoader.load(GameStrategyProvider.class)) {
+            providers.putIfAbsent(provider.name(), provider);
+        }
+
+        entries = new LinkedHashMap<>();
+        assignments = new ArrayList<>();
+        for (var listed : config.strategies.split(",")) {
+            var name = listed.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!providers.containsKey(name)) {
+                logger.error("Unknown strategy '{}', known strategies are {}", name, providers.keySet());
+                continue;
+            }
+            var entry = entries.computeIfAbsent(name,
+                    n -> new Entry(n, providers.get(n).create(config), new StrategyMetrics()));
+            assignments.add(entry);
+        }
+        if (assignments.isEmpty()) {
+            logger.error("No usable strategy in '{}', using {}", config.strategies, GreedyStrategy.name);
+            var entry = new Entry(GreedyStrategy.name, new GreedyStrategy(), new StrategyMetrics());
+            entries.put(entry.name(), entry);
+            assignments.add(entry);
+        }
+    }
+
+    // strategy of next started game
+    Entry assign() {
+        return assignments.get(Math.floorMod(nextAssignment.getAndIncrement(), assignments.size()));
+    }
+
+    // null when strategy is not in use
+    public Entry get(String name) {
+        return entries.get(name);
+    }
+
+    public List<Entry> getEntries() {
+        return List.copyOf(entries.values());
+    }
+}
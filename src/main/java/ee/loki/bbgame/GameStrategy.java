@@ -0,0 +1,36 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.gamemodel.ShopItem;
+import ee.loki.bbgame.gamemodel.Task;
+
+// decisions of a game on its turn. One instance plays all games assigned to its name at the same time,
+// state of a game belongs to GameContext, so implementations have to be thread safe
+public interface GameStrategy {
+    // task to attempt from scored message board, null gives up the game
+    Task selectTask(GameContext context, TaskScorer board);
+
+    // id of item to buy before task is selected, null buys nothing.
+    // health potion when lives are below minimumLives, otherwise first affordable upgrade not bought yet
+    default String selectPurchase(GameContext context, ShopItem[] items) {
+        if (context.getLives() < context.getMinimumLives()) {
+            for (var item : items) {
+                if (BBGameActions.healthPotionId.equals(item.id())) {
+                    return item.cost() > 0 && context.getGold() >= item.cost() ? item.id() : null;
+                }
+            }
+            return null;
+        }
+        for (var item : items) {
+            if (!BBGameActions.healthPotionId.equals(item.id()) && !context.hasBought(item.id())
+                    && item.cost() <= context.getGold()) {
+                return item.id();
+            }
+        }
+        return null;
+    }
+
+    // strategy specific statistics for run summary, null when there are none
+    default String statsSummary() {
+        return null;
+    }
+}
@@ -0,0 +1,9 @@
+package ee.loki.bbgame;
+
+// creates strategy named in strategies property. Providers outside this project are found with ServiceLoader,
+// list them in META-INF/services/ee.loki.bbgame.GameStrategyProvider of their jar
+public interface GameStrategyProvider {
+    String name();
+
+    GameStrategy create(BBGameConfig config);
+}
@@ -0,0 +1,26 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.gamemodel.Task;
+
+// best task of current turn: highest success rate * reward, sooner expiring one of equal tasks
+// this class IS thread safe
+public class GreedyStrategy implements GameStrategy {
+    public static final String name = "greedy";
+
+    @Override
+    public Task selectTask(GameContext context, TaskScorer board) {
+        return board.best();
+    }
+
+    public static class Provider implements GameStrategyProvider {
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public GameStrategy create(BBGameConfig config) {
+            return new GreedyStrategy();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ee.loki.bbgame;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// plays config.totalGames games with at most config.concurrentGames running at the same time.
+// every game runs on its own virtual thread, so waiting for server responses does not hold a platform thread.
+// all games share http client, game client and history store from app context
+public class MultiGameRunner {
+    private static final Logger logger = LoggerFactory.getLogger(MultiGameRunner.class);
+
+    private final AppContext appContext;
+    private final ScoreReport scoreReport = new ScoreReport();
+    private volatile boolean stopRequested = false;
+
+    public MultiGameRunner(AppContext appContext) {
+        this.appContext = appContext;
+    }
+
+    public ScoreReport run() {
+        var config = appContext.config;
+        logger.info("Running {} games, {} concurrently", config.totalGames, config.concurrentGames);
+        var startTime = System.nanoTime();
+        var gameSlots = new Semaphore(Math.max(1, config.concurrentGames));
+        var interrupted = false;
+
+        try (var executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("game-", 0).factory())) {
+            for (int i = 0; i < config.totalGames && !stopRequested; i++) {
+                try {
+                    gameSlots.acquire();
+                } catch (InterruptedException e) {
+                    // games in progress finish their current turn, executor close waits for them
+                    requestStop();
+                    interrupted = true;
+                    break;
+                }
+                executor.submit(() -> {
+                    try {
+                        if (!stopRequested) {
+                            scoreReport.addGame(BBGameMain.runGame(appContext, this::isStopRequested));
+                        }
+                    } catch (Exception e) {
+                        logger.error("Game failed", e);
+                        scoreReport.addFailure();
+                    } finally {
+                        gameSlots.release();
+                    }
+                });
+            }
+        } finally {
+            logger.info("Score report: {}", scoreReport.summary(Duration.ofNanos(System.nanoTime() - startTime)));
+            logger.info("Transport: {}, {}", appContext.httpClient.statsSummary(), appContext.circuitBreaker.statsSummary());
+            logger.info("Caches: {}", appContext.shopCatalogCache.statsSummary());
+            for (var entry : appContext.strategies.getEntries()) {
+                var specific = entry.strategy().statsSummary();
+                logger.info("Strategy {}: {}{}", entry.name(), entry.metrics().statsSummary(),
+                        specific == null ? "" : ", " + specific);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return scoreReport;
+    }
+
+    // games in progress stop after the current turn, no new games are started
+    public void requestStop() {
+        if (!stopRequested) {
+            logger.info("Stop requested, finishing games in progress");
+        }
+        stopRequested = true;
+    }
+
+    public boolean isStopRequested() {
+        return stopRequested;
+    }
+
+    public ScoreReport getScoreReport() {
+        return scoreReport;
+    }
+}
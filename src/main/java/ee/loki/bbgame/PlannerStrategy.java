@@ -0,0 +1,42 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.gamemodel.Task;
+
+// first task of best plan for plannerDepth next turns, see TaskPlanner
+// this class IS thread safe
+public class PlannerStrategy implements GameStrategy {
+    public static final String name = "planner";
+
+    private final TaskPlanner planner;
+
+    public PlannerStrategy(TaskPlanner planner) {
+        this.planner = planner;
+    }
+
+    @Override
+    public Task selectTask(GameContext context, TaskScorer board) {
+        return planner.plan(board, context.getLives());
+    }
+
+    @Override
+    public String statsSummary() {
+        return planner.statsSummary();
+    }
+
+    public TaskPlanner getPlanner() {
+        return planner;
+    }
+
+    public static class Provider implements GameStrategyProvider {
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public GameStrategy create(BBGameConfig config) {
+            return new PlannerStrategy(new TaskPlanner(config.plannerDepth, config.plannerBudget,
+                    config.plannerParallelism));
+        }
+    }
+}
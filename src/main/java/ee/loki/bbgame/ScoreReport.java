@@ -0,0 +1,60 @@
+package ee.loki.bbgame;
+
+import java.time.Duration;
+
+// aggregated results of all games played by one runner
+// this class IS thread safe
+public class ScoreReport {
+    private int gamesFinished = 0;
+    private int gamesFailed = 0;
+    private int targetsReached = 0;
+    private long totalScore = 0;
+    private long totalLevel = 0;
+    private int minScore = Integer.MAX_VALUE;
+    private int maxScore = 0;
+
+    synchronized void addGame(GameContext gameContext) {
+        gamesFinished++;
+        if (gameContext.score >= gameContext.targetScore) {
+            targetsReached++;
+        }
+        totalScore += gameContext.score;
+        totalLevel += gameContext.level;
+        minScore = Math.min(minScore, gameContext.score);
+        maxScore = Math.max(maxScore, gameContext.score);
+    }
+
+    synchronized void addFailure() {
+        gamesFailed++;
+    }
+
+    public synchronized int getGamesFinished() {
+        return gamesFinished;
+    }
+
+    public synchronized int getGamesFailed() {
+        return gamesFailed;
+    }
+
+    public synchronized int getTargetsReached() {
+        return targetsReached;
+    }
+
+    public synchronized long getTotalScore() {
+        return totalScore;
+    }
+
+    public synchronized double getAverageScore() {
+        return gamesFinished == 0 ? 0.0 : (double) totalScore / gamesFinished;
+    }
+
+    public synchronized String summary(Duration elapsed) {
+        var gamesPerHour = elapsed.toMillis() == 0 ? 0.0 : gamesFinished * 3_600_000.0 / elapsed.toMillis();
+        return String.format("games finished: %d, failed: %d, target reached: %d, " +
+                        "score avg: %.1f min: %d max: %d, level avg: %.1f, elapsed: %s, games per hour: %.0f",
+                gamesFinished, gamesFailed, targetsReached,
+                getAverageScore(), gamesFinished == 0 ? 0 : minScore, maxScore,
+                gamesFinished == 0 ? 0.0 : (double) totalLevel / gamesFinished,
+                elapsed, gamesPerHour);
+    }
+}
@@ -0,0 +1,61 @@
+package ee.loki.bbgame;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// results of games played with one strategy, for comparing strategies run side by side in one process.
+// turns are server turns, requests are calls to game server made for the game
+// this class IS thread safe
+public class StrategyMetrics {
+    private final LongAdder games = new LongAdder();
+    private final LongAdder score = new LongAdder();
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder decisionNanos = new LongAdder();
+    private final LongAccumulator maxDecisionNanos = new LongAccumulator(Math::max, 0);
+
+    void addDecision(long nanos) {
+        decisions.increment();
+        decisionNanos.add(nanos);
+        maxDecisionNanos.accumulate(nanos);
+    }
+
+    void addGame(int gameScore, int gameTurns, long gameRequests) {
+        games.increment();
+        score.add(gameScore);
+        turns.add(gameTurns);
+        requests.add(gameRequests);
+    }
+
+    public long getGames() {
+        return games.sum();
+    }
+
+    public long getDecisions() {
+        return decisions.sum();
+    }
+
+    public double getScorePerTurn() {
+        var count = turns.sum();
+        return count == 0 ? 0.0 : (double) score.sum() / count;
+    }
+
+    public double getScorePerRequest() {
+        var count = requests.sum();
+        return count == 0 ? 0.0 : (double) score.sum() / count;
+    }
+
+    public double getAverageDecisionMicros() {
+        var count = decisions.sum();
+        return count == 0 ? 0.0 : decisionNanos.sum() / 1000.0 / count;
+    }
+
+    public String statsSummary() {
+        var count = games.sum();
+        return String.format("games: %d, score avg: %.1f, score per turn: %.2f, score per request: %.2f, " +
+                        "decision avg: %.1f us max: %.1f us",
+                count, count == 0 ? 0.0 : (double) score.sum() / count, getScorePerTurn(), getScorePerRequest(),
+                getAverageDecisionMicros(), maxDecisionNanos.get() / 1000.0);
+    }
+}
@@ -0,0 +1,189 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.gamemodel.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+// looks depth tasks ahead instead of taking the best task of current turn only. Plan is found with expectimax over
+// tasks of scored board: attempted task succeeds with its success rate and adds its reward, or fails and costs a life,
+// game without lives is worth nothing after that. Every attempt takes a turn, so task with expiresIn e can be attempted
+// in the next e turns only. Ads that appear on later turns are unknown and not counted, so plan mostly reorders
+// tasks to take those expiring soon first while the better ones are still waiting.
+// every possible first task is searched as its own fork-join task. When search does not finish within budget
+// greedy choice of TaskScorer is taken, ties between plans are also broken by greedy order
+// this class IS thread safe
+public class TaskPlanner {
+    private static final Logger logger = LoggerFactory.getLogger(TaskPlanner.class);
+
+    // boards are planned over at most this many best tasks, so tasks taken in a plan fit into a long bitmask
+    static final int maxWidth = 63;
+    // deadline is checked after this many evaluated nodes
+    private static final int deadlineCheckInterval = 256;
+
+    private final int depth;
+    private final long budgetNanos;
+    private final ForkJoinPool pool;
+    private final LongAdder plans = new LongAdder();
+    private final LongAdder changed = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    // parallelism 0 uses all processors
+    public TaskPlanner(int depth, Duration budget, int parallelism) {
+        this.depth = depth;
+        this.budgetNanos = budget.toNanos();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // first task of best plan for last scored board, null when no task is eligible
+    Task plan(TaskScorer scorer, int lives) {
+        var count = Math.min(scorer.rank(), maxWidth);
+        if (count == 0) {
+            return null;
+        }
+        var greedy = scorer.rankedTask(0);
+        if (count == 1 || depth <= 1) {
+            return greedy;
+        }
+        var search = new Search(count, lives, System.nanoTime() + budgetNanos);
+        for (int i = 0; i < count; i++) {
+            var index = scorer.rankedIndex(i);
+            search.successRates[i] = scorer.successRate(index);
+            search.rewards[i] = scorer.task(index).reward();
+            search.expiresIn[i] = scorer.task(index).expiresIn();
+        }
+
+        double[] values;
+        try {
+            values = pool.submit(search).get(budgetNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            search.expired = true;
+            values = null;
+        } catch (ExecutionException e) {
+            logger.error("Planning failed, taking best task of current turn", e);
+            values = null;
+        } catch (InterruptedException e) {
+            // game is being stopped, greedy choice is good enough for the last turn
+            Thread.currentThread().interrupt();
+            search.expired = true;
+            values = null;
+        }
+        if (values == null || search.expired) {
+            fallbacks.increment();
+            return greedy;
+        }
+        var best = 0;
+        for (int i = 1; i < count; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        plans.increment();
+        if (best != 0) {
+            changed.increment();
+        }
+        return scorer.rankedTask(best);
+    }
+
+    public long getPlans() {
+        return plans.sum();
+    }
+
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    public String statsSummary() {
+        return String.format("planner depth: %d, plans: %d, differing from greedy: %d, greedy fallbacks: %d",
+                depth, getPlans(), changed.sum(), getFallbacks());
+    }
+
+    // expected score of taking each task first
+    private final class Search extends RecursiveTask<double[]> {
+        private static final long serialVersionUID = 1L;
+
+        final double[] successRates;
+        final int[] rewards;
+        final int[] expiresIn;
+        final int lives;
+        final long deadline;
+        volatile boolean expired = false;
+
+        Search(int count, int lives, long deadline) {
+            this.successRates = new double[count];
+            this.rewards = new int[count];
+            this.expiresIn = new int[count];
+            this.lives = lives;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected double[] compute() {
+            var branches = new ArrayList<Branch>(rewards.length);
+            for (int i = 0; i < rewards.length; i++) {
+                branches.add(new Branch(this, i));
+            }
+            invokeAll(branches);
+            var result = new double[rewards.length];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = branches.get(i).join();
+            }
+            return result;
+        }
+    }
+
+    private final class Branch extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final int first;
+        private int nodes = 0;
+
+        Branch(Search search, int first) {
+            this.search = search;
+            this.first = first;
+        }
+
+        @Override
+        protected Double compute() {
+            return attempt(first, 0, search.lives, 0L);
+        }
+
+        // expected score of attempting task on given turn of plan and playing best plan after it
+        private double attempt(int task, int turn, int lives, long taken) {
+            var rate = search.successRates[task];
+            var nextTaken = taken | 1L << task;
+            var succeeded = best(turn + 1, lives, nextTaken);
+            var failed = rate < 1.0 ? best(turn + 1, lives - 1, nextTaken) : 0.0;
+            return rate * (search.rewards[task] + succeeded) + (1 - rate) * failed;
+        }
+
+        private double best(int turn, int lives, long taken) {
+            if (turn >= depth || lives <= 0 || expired()) {
+                return 0.0;
+            }
+            var result = 0.0;
+            for (int i = 0; i < search.rewards.length; i++) {
+                if ((taken & 1L << i) == 0 && search.expiresIn[i] > turn) {
+                    result = Math.max(result, attempt(i, turn, lives, taken));
+                }
+            }
+            return result;
+        }
+
+        private boolean expired() {
+            if (++nodes % deadlineCheckInterval == 0 && System.nanoTime() > search.deadline) {
+                search.expired = true;
+            }
+            return search.expired;
+        }
+    }
+}
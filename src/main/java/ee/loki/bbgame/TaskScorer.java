@@ -0,0 +1,143 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.gamemodel.KeywordClass;
+import ee.loki.bbgame.gamemodel.Task;
+import ee.loki.bbgame.history.SuccessRateIndex;
+import ee.loki.bbgame.history.SuccessRateTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// scores whole message board in one pass against one success rate table, value of task is success rate * reward.
+// tasks rank by value descending, then by expiresIn ascending, then by board order, so best task is the one
+// selectNextTask has always picked. Tasks with value below -1 or NaN are never picked
+// this class is NOT thread safe, every game has its own scorer and arrays are reused between turns
+public class TaskScorer {
+    private List<Task> tasks = List.of();
+    private double[] values = new double[16];
+    private double[] successRates = new double[16];
+    private int[] expiresIn = new int[16];
+    private int[] order = new int[16];
+    private int[] scratch = new int[16];
+
+    TaskScorer score(List<Task> tasks, SuccessRateTable table, int level) {
+        var count = tasks.size();
+        if (values.length < count) {
+            var capacity = Math.max(count, values.length * 2);
+            values = new double[capacity];
+            successRates = new double[capacity];
+            expiresIn = new int[capacity];
+            order = new int[capacity];
+            scratch = new int[capacity];
+        }
+        var levelBand = SuccessRateIndex.levelBand(level);
+        for (int i = 0; i < count; i++) {
+            var task = tasks.get(i);
+            var row = table.getRow(task.probabilityId());
+            var successRate = row == null
+                    ? 0.0
+                    : row[SuccessRateIndex.bucket(levelBand, KeywordClass.of(task.message()))];
+            successRates[i] = successRate;
+            values[i] = successRate * task.reward();
+            expiresIn[i] = task.expiresIn();
+        }
+        this.tasks = tasks;
+        return this;
+    }
+
+    // best task of last scored board, null when no task is eligible
+    public Task best() {
+        var best = -1;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (eligible(i) && (best < 0 || before(i, best))) {
+                best = i;
+            }
+        }
+        return best < 0 ? null : tasks.get(best);
+    }
+
+    // eligible tasks of last scored board from best to worst
+    public List<Task> ranked() {
+        var count = rank();
+        var result = new ArrayList<Task>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(tasks.get(order[i]));
+        }
+        return result;
+    }
+
+    // sorts eligible tasks of last scored board from best to worst without building a list, returns their count.
+    // positions are then read with rankedIndex and rankedTask
+    public int rank() {
+        var count = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            if (eligible(i)) {
+                order[count++] = i;
+            }
+        }
+        sort(0, count);
+        return count;
+    }
+
+    // board index of task at position of last rank
+    public int rankedIndex(int position) {
+        return order[position];
+    }
+
+    public Task rankedTask(int position) {
+        return tasks.get(order[position]);
+    }
+
+    // tasks of last scored board in board order, ineligible ones included
+    public int size() {
+        return tasks.size();
+    }
+
+    public Task task(int index) {
+        return tasks.get(index);
+    }
+
+    public double successRate(int index) {
+        return successRates[index];
+    }
+
+    private boolean eligible(int i) {
+        return values[i] >= -1;
+    }
+
+    private boolean before(int i, int j) {
+        if (values[i] != values[j]) {
+            return values[i] > values[j];
+        }
+        if (expiresIn[i] != expiresIn[j]) {
+            return expiresIn[i] < expiresIn[j];
+        }
+        return i < j;
+    }
+
+    // merge sort of order[from, to) on primitive arrays, boards are short and often nearly sorted already
+    private void sort(int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        var middle = (from + to) >>> 1;
+        sort(from, middle);
+        sort(middle, to);
+        if (!before(order[middle], order[middle - 1])) {
+            return;
+        }
+        System.arraycopy(order, from, scratch, from, to - from);
+        int left = from, right = middle, target = from;
+        while (left < middle && right < to) {
+            order[target++] = before(scratch[right], scratch[left]) ? scratch[right++] : scratch[left++];
+        }
+        System.arraycopy(scratch, left, order, target, middle - left);
+        System.arraycopy(scratch, right, order, target + middle - left, to - right);
+    }
+
+    // values of last scored board, for tests
+    double[] getValues() {
+        return Arrays.copyOf(values, tasks.size());
+    }
+}
@@ -0,0 +1,19 @@
+package ee.loki.bbgame.gamemodel;
+
+// ad as received from message board, fields are not decoded yet
+public record Ad(
+    String adId,
+    String message,
+    int reward,
+    int expiresIn,
+    String probability,
+    int encrypted
+) {
+    public Task toTask() {
+        return new Task(adId, message, reward, expiresIn, probability, encrypted);
+    }
+
+    public boolean encryptionUnknown() {
+        return !AdDecoders.isKnown(encrypted);
+    }
+}
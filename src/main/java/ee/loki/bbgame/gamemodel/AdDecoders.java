@@ -0,0 +1,80 @@
+package ee.loki.bbgame.gamemodel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+// decoders of ad fields by value of ad.encrypted: 0 plain, 1 Base64 of UTF-8, 2 ROT13.
+// further schemes can be registered before games start, ads with unregistered scheme are skipped by MessageBoard.
+// built-in decoders allocate one array sized to the field besides the resulting string
+// this class IS thread safe
+public final class AdDecoders {
+    public interface Decoder {
+        String decode(String value);
+    }
+
+    // copied on registration, readers index it without locking
+    private static volatile Decoder[] decoders = {value -> value, AdDecoders::base64, AdDecoders::rot13};
+
+    private static final char[] rot13Chars = new char[128];
+
+    static {
+        for (char c = 0; c < rot13Chars.length; c++) {
+            rot13Chars[c] = c >= 'a' && c <= 'z' ? (char) ('a' + (c - 'a' + 13) % 26)
+                    : c >= 'A' && c <= 'Z' ? (char) ('A' + (c - 'A' + 13) % 26) : c;
+        }
+    }
+
+    private AdDecoders() {}
+
+    public static synchronized void register(int encrypted, Decoder decoder) {
+        if (encrypted <= 0) {
+            throw new IllegalArgumentException("Encryption " + encrypted + " can not be registered");
+        }
+        var updated = Arrays.copyOf(decoders, Math.max(decoders.length, encrypted + 1));
+        updated[encrypted] = decoder;
+        decoders = updated;
+    }
+
+    // for tests, scheme is unknown again afterwards
+    static synchronized void unregister(int encrypted) {
+        if (encrypted <= 0) {
+            throw new IllegalArgumentException("Encryption " + encrypted + " can not be unregistered");
+        }
+        if (encrypted < decoders.length) {
+            var updated = Arrays.copyOf(decoders, decoders.length);
+            updated[encrypted] = null;
+            decoders = updated;
+        }
+    }
+
+    // null when scheme is unknown
+    public static Decoder get(int encrypted) {
+        var current = decoders;
+        return encrypted >= 0 && encrypted < current.length ? current[encrypted] : null;
+    }
+
+    public static boolean isKnown(int encrypted) {
+        return get(encrypted) != null;
+    }
+
+    // JDK decoder is vectorized
+    static String base64(String value) {
+        if (value == null) {
+            return null;
+        }
+        return new String(Base64.getDecoder().decode(value.getBytes(StandardCharsets.ISO_8859_1)), StandardCharsets.UTF_8);
+    }
+
+    static String rot13(String value) {
+        if (value == null) {
+            return null;
+        }
+        var chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            var c = chars[i];
+            chars[i] = c < rot13Chars.length ? rot13Chars[c] : c;
+        }
+        return new String(chars);
+    }
+}
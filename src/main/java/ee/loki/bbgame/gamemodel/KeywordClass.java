@@ -0,0 +1,38 @@
+package ee.loki.bbgame.gamemodel;
+
+// kind of task by first word of its message, tasks of same probability may succeed differently by kind
+public enum KeywordClass {
+    HELP("help"),
+    ESCORT("escort"),
+    INVESTIGATE("investigate"),
+    STEAL("steal"),
+    KILL("kill"),
+    RESCUE("rescue"),
+    ADVERTISE("create"),
+    INFILTRATE("infiltrate"),
+    NEGOTIATE("negotiate"),
+    OTHER(null);
+
+    private static final KeywordClass[] classes = values();
+
+    private final String firstWord;
+
+    KeywordClass(String firstWord) {
+        this.firstWord = firstWord;
+    }
+
+    // compares first word in place, message is not split or copied
+    public static KeywordClass of(String message) {
+        if (message == null) {
+            return OTHER;
+        }
+        for (var keywordClass : classes) {
+            var word = keywordClass.firstWord;
+            if (word != null && message.regionMatches(true, 0, word, 0, word.length())
+                    && (message.length() == word.length() || message.charAt(word.length()) == ' ')) {
+                return keywordClass;
+            }
+        }
+        return OTHER;
+    }
+}
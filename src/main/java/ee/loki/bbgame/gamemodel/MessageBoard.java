@@ -0,0 +1,65 @@
+package ee.loki.bbgame.gamemodel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+// message board of one game, kept between turns.
+// ad is decoded into a task only when it first appears, for ads seen before only reward and expiration are updated.
+// ads missing from server response (expired or solved) are dropped
+// this class is NOT thread safe, every game has its own board
+public class MessageBoard {
+    private static final Logger logger = LoggerFactory.getLogger(MessageBoard.class);
+
+    // adId here is as received from server, still encoded for encrypted ads
+    private record Entry(int encrypted, Task task) {}
+
+    private Map<String, Entry> entries = new HashMap<>();
+    private Set<String> unknownAdIds = new HashSet<>();
+    private List<Task> tasks = List.of();
+    private long decodedAds = 0;
+
+    // replaces board content with ads received from server, returns tasks ordered by expiration.
+    // tasks expiring at the same time keep server order
+    public List<Task> update(Ad[] ads) {
+        var updatedEntries = new HashMap<String, Entry>(ads.length * 2);
+        var updatedUnknownAdIds = new HashSet<String>();
+        var updatedTasks = new ArrayList<Task>(ads.length);
+
+        for (var ad : ads) {
+            if (ad.encryptionUnknown()) {
+                if (!unknownAdIds.contains(ad.adId())) {
+                    logger.info("Skipping ad with unknown encryption {}: {}", ad.encrypted(), ad);
+                }
+                updatedUnknownAdIds.add(ad.adId());
+                continue;
+            }
+
+            var entry = entries.get(ad.adId());
+            if (entry == null || entry.encrypted() != ad.encrypted()) {
+                entry = new Entry(ad.encrypted(), ad.toTask());
+                decodedAds++;
+            } else if (entry.task().reward() != ad.reward() || entry.task().expiresIn() != ad.expiresIn()) {
+                entry = new Entry(ad.encrypted(), entry.task().withRewardAndExpiresIn(ad.reward(), ad.expiresIn()));
+            }
+            updatedEntries.put(ad.adId(), entry);
+            updatedTasks.add(entry.task());
+        }
+        updatedTasks.sort(Comparator.comparingInt(Task::expiresIn));
+
+        entries = updatedEntries;
+        unknownAdIds = updatedUnknownAdIds;
+        tasks = Collections.unmodifiableList(updatedTasks);
+        return tasks;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    // number of ads decoded into tasks since board was created
+    public long getDecodedAds() {
+        return decodedAds;
+    }
+}
@@ -0,0 +1,50 @@
+package ee.loki.bbgame.gamemodel;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// dictionary of probability strings, every distinct string gets a small integer id and one shared String instance.
+// ids are given in order of first appearance and are valid for the lifetime of the process only, history keeps strings.
+// unknown probabilities are registered on the fly
+// this class IS thread safe
+public final class ProbabilityClasses {
+    // id of missing probability
+    public static final int none = 0;
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    // copied on registration, readers index it without locking
+    private static volatile String[] names = {null};
+
+    private ProbabilityClasses() {}
+
+    public static int idOf(String probability) {
+        if (probability == null) {
+            return none;
+        }
+        var id = ids.get(probability);
+        return id != null ? id : register(probability);
+    }
+
+    private static synchronized int register(String probability) {
+        var id = ids.get(probability);
+        if (id != null) {
+            return id;
+        }
+        var current = names;
+        var updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = probability;
+        // name is published before id, so name(idOf(p)) always works
+        names = updated;
+        ids.put(probability, current.length);
+        return current.length;
+    }
+
+    public static String name(int id) {
+        return names[id];
+    }
+
+    // ids are 0 until count() - 1
+    public static int count() {
+        return names.length;
+    }
+}
@@ -1,39 +1,44 @@
 package ee.loki.bbgame.gamemodel;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.Base64;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+// probability is interned in ProbabilityClasses, probabilityId is its id there and is not stored in history.
+// encrypted fields are decoded with AdDecoders, task with unknown encryption keeps them as received
 public record Task(
     String adId,
     String message,
     int reward,
     int expiresIn,
     String probability,
-    int encrypted
+    int encrypted,
+    @JsonIgnore int probabilityId
 ){
-    private static final Logger logger = LoggerFactory.getLogger(Task.class);
-
     public Task {
-        if (encryptionUnknown()) {
-            logger.info("Received task with unknown encryption {}: {}", encrypted, this);
-        }
-
-        if (encrypted == 1) {
-            adId = decode(adId);
-            message = decode(message);
-            probability = decode(probability);
+        var decoder = encrypted != 0 ? AdDecoders.get(encrypted) : null;
+        if (decoder != null) {
+            adId = decoder.decode(adId);
+            message = decoder.decode(message);
+            probability = decoder.decode(probability);
             encrypted = 0;
         }
+        // id passed along with its interned string is trusted, anything else is looked up
+        if (probabilityId < 0 || probabilityId >= ProbabilityClasses.count()
+                || ProbabilityClasses.name(probabilityId) != probability) {
+            probabilityId = ProbabilityClasses.idOf(probability);
+            probability = ProbabilityClasses.name(probabilityId);
+        }
+    }
+
+    public Task(String adId, String message, int reward, int expiresIn, String probability, int encrypted) {
+        this(adId, message, reward, expiresIn, probability, encrypted, ProbabilityClasses.none);
     }
 
-    private String decode(String input) {
-        var decoded =  Base64.getDecoder().decode (input);
-        return new String(decoded);
+    // same task with new reward and expiration, no decoding needed
+    public Task withRewardAndExpiresIn(int reward, int expiresIn) {
+        return new Task(adId, message, reward, expiresIn, probability, encrypted, probabilityId);
     }
 
     public boolean encryptionUnknown() {
-        return encrypted != 0 && encrypted != 1;
+        return !AdDecoders.isKnown(encrypted);
     }
 }
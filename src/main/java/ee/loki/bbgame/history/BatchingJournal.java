@@ -0,0 +1,224 @@
+package ee.loki.bbgame.history;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// base of journals written by background writer.
+// appended steps are queued, writer encodes them in batches, appends batch to file and syncs file to disk at most
+// once per fsyncInterval. Sync listener is called after every sync with steps synced
+// this class IS thread safe
+abstract class BatchingJournal implements HistoryJournal {
+    private static final Logger logger = LoggerFactory.getLogger(BatchingJournal.class);
+
+    // step to write, or flush request when step is null
+    private record Entry(GameStep gameStep, CompletableFuture<Void> flushed) {}
+
+    private static final Entry closeMarker = new Entry(null, null);
+
+    protected final Path file;
+    private final long fsyncIntervalNanos;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+
+    private Thread writerThread;
+    private volatile boolean closed = false;
+    private volatile SyncListener syncListener = null;
+    // writer has given up after io error, error is logged once and further steps are dropped
+    private volatile IOException failure = null;
+
+    BatchingJournal(Path file, Duration fsyncInterval) {
+        this.file = file;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+    }
+
+    // encodes steps so that appending result to file keeps it readable by replay
+    protected abstract void encode(List<GameStep> gameSteps, ByteArrayOutputStream out) throws IOException;
+
+    // cuts off torn end of file left by process killed mid-write
+    protected void truncate(long validLength, long fileLength) throws IOException {
+        logger.warn("History journal '{}' ends with incomplete write, cutting off {} bytes", file, fileLength - validLength);
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(validLength);
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public long size() throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    @Override
+    public void setSyncListener(SyncListener listener) {
+        this.syncListener = listener;
+    }
+
+    @Override
+    public void append(GameStep gameStep) {
+        if (closed) {
+            throw new IllegalStateException("History journal is closed");
+        }
+        if (failure == null) {
+            startWriter();
+            queue.add(new Entry(gameStep, null));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException, InterruptedException {
+        if (closed) {
+            return;
+        }
+        startWriter();
+        var flushed = new CompletableFuture<Void>();
+        queue.add(new Entry(null, flushed));
+        while (true) {
+            try {
+                flushed.get(100, TimeUnit.MILLISECONDS);
+                return;
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to write history journal", e.getCause());
+            } catch (TimeoutException e) {
+                // writer may have failed after this request was queued
+                if (failure != null) {
+                    throw new IOException("Failed to write history journal", failure);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            thread = writerThread;
+        }
+        if (thread != null) {
+            queue.add(closeMarker);
+            // steps already queued are written even when closing thread is interrupted, e.g. on shutdown
+            var interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private synchronized void startWriter() {
+        if (writerThread == null) {
+            writerThread = Thread.ofPlatform().name("history-writer").daemon().start(this::writeLoop);
+        }
+    }
+
+    private void notifySynced(List<GameStep> gameSteps, long journalLength) {
+        var listener = syncListener;
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.synced(gameSteps, journalLength);
+        } catch (RuntimeException e) {
+            logger.error("History journal sync listener failed", e);
+        }
+    }
+
+    private void writeLoop() {
+        var batch = new ArrayList<Entry>();
+        var steps = new ArrayList<GameStep>();
+        var unsyncedSteps = new ArrayList<GameStep>();
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            var buffer = new ByteArrayOutputStream(1 << 16);
+            var lastSync = System.nanoTime();
+            var unsynced = false;
+            while (true) {
+                var first = unsynced
+                        ? queue.poll(Math.max(0, fsyncIntervalNanos - (System.nanoTime() - lastSync)), TimeUnit.NANOSECONDS)
+                        : queue.take();
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch);
+                }
+
+                var flushRequested = false;
+                var closeRequested = false;
+                for (var entry : batch) {
+                    if (entry == closeMarker) {
+                        closeRequested = true;
+                    } else if (entry.gameStep() == null) {
+                        flushRequested = true;
+                    } else {
+                        steps.add(entry.gameStep());
+                    }
+                }
+                if (!steps.isEmpty()) {
+                    encode(steps, buffer);
+                    if (syncListener != null) {
+                        unsyncedSteps.addAll(steps);
+                    }
+                    steps.clear();
+                    var bytes = ByteBuffer.wrap(buffer.toByteArray());
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    buffer.reset();
+                    unsynced = true;
+                }
+                if (unsynced && (flushRequested || closeRequested || System.nanoTime() - lastSync >= fsyncIntervalNanos)) {
+                    channel.force(false);
+                    lastSync = System.nanoTime();
+                    unsynced = false;
+                    notifySynced(unsyncedSteps, channel.size());
+                    unsyncedSteps.clear();
+                }
+                for (var entry : batch) {
+                    if (entry.flushed() != null) {
+                        entry.flushed().complete(null);
+                    }
+                }
+                batch.clear();
+                if (closeRequested) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write history journal '{}', further steps are not saved", file, e);
+            failure = e;
+            batch.addAll(queue);
+            queue.clear();
+            for (var entry : batch) {
+                if (entry.flushed() != null) {
+                    entry.flushed().completeExceptionally(e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package ee.loki.bbgame.history;
+
+import ee.loki.bbgame.gamemodel.Task;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// compact journal made of self-contained blocks, every batch written by background writer is one block:
+//   magic, block length, row count, string count        4 ints
+//   strings (game ids, ad ids, messages, probabilities)  length prefixed UTF-8, each distinct string once per block
+//   rows                                                 fixed width, strings as indexes into block strings
+//                                                        version 2 rows end with dragon state: flag and 3 ints
+//   CRC32 of everything before it                        1 int
+// file is read through FileChannel.map, so loading does no stream parsing and every repeated string (probability,
+// message, game id) is decoded once per block. Damaged data at the end is a torn write and is cut off, damaged data
+// followed by an intact block is skipped up to that block
+// this class IS thread safe
+public class BinaryJournal extends BatchingJournal {
+    private static final Logger logger = LoggerFactory.getLogger(BinaryJournal.class);
+
+    static final int magicV1 = 0x42424831; // "BBH1"
+    static final int magic = 0x42424832; // "BBH2"
+    static final int headerSize = 16;
+    static final int rowSizeV1 = 5 * 4 + 7 * 4 + 2;
+    static final int rowSize = rowSizeV1 + 1 + 3 * 4;
+    // files over this size are mapped in windows, a block never spans windows
+    private static final long mapWindow = 1L << 30;
+
+    public BinaryJournal(Path file, Duration fsyncInterval) {
+        super(file, fsyncInterval);
+    }
+
+    @Override
+    protected void encode(List<GameStep> gameSteps, ByteArrayOutputStream out) throws IOException {
+        var stringIndexes = new HashMap<String, Integer>();
+        var strings = new ByteArrayOutputStream(gameSteps.size() * 64);
+        var stringsOut = new DataOutputStream(strings);
+        var rows = ByteBuffer.allocate(gameSteps.size() * rowSize);
+        for (var gameStep : gameSteps) {
+            var task = gameStep.attemptedTask();
+            var result = gameStep.attemptResult();
+            rows.putInt(stringIndex(gameStep.gameId(), stringIndexes, stringsOut))
+                    .putInt(stringIndex(task.adId(), stringIndexes, stringsOut))
+                    .putInt(stringIndex(task.message(), stringIndexes, stringsOut))
+                    .putInt(stringIndex(task.probability(), stringIndexes, stringsOut))
+                    .putInt(stringIndex(result.message(), stringIndexes, stringsOut))
+                    .putInt(task.reward())
+                    .putInt(task.expiresIn())
+                    .putInt(result.lives())
+                    .putInt(result.gold())
+                    .putInt(result.score())
+                    .putInt(result.highScore())
+                    .putInt(result.turn())
+                    .put((byte) task.encrypted())
+                    .put((byte) (result.success() ? 1 : 0));
+            var dragonState = gameStep.dragonState();
+            if (dragonState == null) {
+                rows.put((byte) 0).putInt(0).putInt(0).putInt(0);
+            } else {
+                rows.put((byte) 1).putInt(dragonState.level()).putInt(dragonState.lives()).putInt(dragonState.gold());
+            }
+        }
+
+        var blockLength = headerSize + strings.size() + rows.capacity() + 4;
+        var block = ByteBuffer.allocate(blockLength)
+                .putInt(magic)
+                .putInt(blockLength)
+                .putInt(gameSteps.size())
+                .putInt(stringIndexes.size())
+                .put(strings.toByteArray())
+                .put(rows.array());
+        var crc = new CRC32();
+        crc.update(block.array(), 0, block.position());
+        block.putInt((int) crc.getValue());
+        out.write(block.array());
+    }
+
+    // -1 stands for null
+    private static int stringIndex(String value, HashMap<String, Integer> stringIndexes, DataOutputStream stringsOut)
+            throws IOException {
+        if (value == null) {
+            return -1;
+        }
+        var index = stringIndexes.get(value);
+        if (index == null) {
+            index = stringIndexes.size();
+            stringIndexes.put(value, index);
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            stringsOut.writeInt(bytes.length);
+            stringsOut.write(bytes);
+        }
+        return index;
+    }
+
+    @Override
+    public synchronized void replay(long fromOffset, Consumer<GameStep> consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        var fileLength = Files.size(file);
+        var position = scan(fromOffset, fileLength, consumer);
+        if (position < fileLength) {
+            truncate(position, fileLength);
+        }
+    }
+
+    @Override
+    public void replayRange(long fromOffset, long toOffset, Consumer<GameStep> consumer) throws IOException {
+        if (Files.exists(file)) {
+            scan(fromOffset, toOffset, consumer);
+        }
+    }
+
+    // every part starts at a block, only block headers are read
+    @Override
+    public List<Long> split(int parts) throws IOException {
+        var fileLength = size();
+        var result = new ArrayList<Long>();
+        result.add(0L);
+        if (fileLength > 0) {
+            try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                var header = ByteBuffer.allocate(8);
+                var nextSplit = 1;
+                long position = 0;
+                while (position + headerSize <= fileLength) {
+                    header.clear();
+                    channel.read(header, position);
+                    var blockMagic = header.getInt(0);
+                    var blockLength = header.getInt(4);
+                    if ((blockMagic != magic && blockMagic != magicV1) || blockLength < headerSize + 4) {
+                        break;
+                    }
+                    if (position >= fileLength * nextSplit / parts && position > result.getLast()) {
+                        result.add(position);
+                        nextSplit = (int) Math.min(parts, position * parts / fileLength + 1);
+                    }
+                    position += blockLength;
+                }
+            }
+            result.add(fileLength);
+        }
+        return result;
+    }
+
+    // returns offset after last complete block
+    private long scan(long fromOffset, long toOffset, Consumer<GameStep> consumer) throws IOException {
+        long position = fromOffset;
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (position < toOffset) {
+                var windowLength = Math.min(mapWindow, toOffset - position);
+                var window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowLength);
+                var consumed = replayWindow(window, position, position + windowLength == toOffset, consumer);
+                if (consumed == 0) {
+                    break;
+                }
+                position += consumed;
+            }
+        }
+        return position;
+    }
+
+    // returns number of bytes in complete blocks, damaged data with no intact block after it ends replay.
+    // damaged data followed by an intact block is skipped, only disk corruption can cause that
+    private long replayWindow(MappedByteBuffer window, long windowStart, boolean lastWindow, Consumer<GameStep> consumer)
+            throws IOException {
+        var crc = new CRC32();
+        while (window.remaining() >= headerSize) {
+            var start = window.position();
+            var blockMagic = window.getInt(start);
+            var blockLength = window.getInt(start + 4);
+            if (blockLength > window.remaining() && !lastWindow && start > 0
+                    && (blockMagic == magic || blockMagic == magicV1)) {
+                // block continues in next window
+                break;
+            }
+            if (isBlock(window, start, crc)) {
+                readBlock(window.slice(start, blockLength), blockMagic == magic, consumer);
+                window.position(start + blockLength);
+                continue;
+            }
+            var next = start + 1;
+            while (next + headerSize + 4 <= window.limit() && !isBlock(window, next, crc)) {
+                next++;
+            }
+            if (next + headerSize + 4 > window.limit()) {
+                if (lastWindow) {
+                    // torn write
+                    break;
+                }
+                throw new IOException("Damaged history journal '" + file + "' at " + (windowStart + start));
+            }
+            logger.error("Skipping {} damaged bytes at {} of history journal '{}'", next - start, windowStart + start, file);
+            window.position(next);
+        }
+        return window.position();
+    }
+
+    private static boolean isBlock(MappedByteBuffer window, int start, CRC32 crc) {
+        var blockMagic = window.getInt(start);
+        var blockLength = window.getInt(start + 4);
+        if ((blockMagic != magic && blockMagic != magicV1) || blockLength < headerSize + 4
+                || blockLength > window.limit() - start) {
+            return false;
+        }
+        crc.reset();
+        crc.update(window.slice(start, blockLength - 4));
+        return (int) crc.getValue() == window.getInt(start + blockLength - 4);
+    }
+
+    private static void readBlock(ByteBuffer block, boolean withDragonState, Consumer<GameStep> consumer) {
+        var rowCount = block.getInt(8);
+        var stringCount = block.getInt(12);
+        block.position(headerSize);
+        var strings = new String[stringCount];
+        for (int i = 0; i < stringCount; i++) {
+            var length = block.getInt();
+            strings[i] = StandardCharsets.UTF_8.decode(block.slice(block.position(), length)).toString();
+            block.position(block.position() + length);
+        }
+        for (int i = 0; i < rowCount; i++) {
+            var gameId = string(strings, block.getInt());
+            var adId = string(strings, block.getInt());
+            var message = string(strings, block.getInt());
+            var probability = string(strings, block.getInt());
+            var resultMessage = string(strings, block.getInt());
+            var reward = block.getInt();
+            var expiresIn = block.getInt();
+            var lives = block.getInt();
+            var gold = block.getInt();
+            var score = block.getInt();
+            var highScore = block.getInt();
+            var turn = block.getInt();
+            var encrypted = block.get();
+            var success = block.get() != 0;
+            DragonState dragonState = null;
+            if (withDragonState) {
+                var present = block.get() != 0;
+                var dragonLevel = block.getInt();
+                var dragonLives = block.getInt();
+                var dragonGold = block.getInt();
+                dragonState = present ? new DragonState(dragonLevel, dragonLives, dragonGold) : null;
+            }
+            consumer.accept(new GameStep(gameId,
+                    new Task(adId, message, reward, expiresIn, probability, encrypted),
+                    new TaskResult(success, lives, gold, score, highScore, turn, resultMessage),
+                    dragonState));
+        }
+    }
+
+    private static String string(String[] strings, int index) {
+        return index < 0 ? null : strings[index];
+    }
+}
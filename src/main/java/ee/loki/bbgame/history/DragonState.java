@@ -0,0 +1,8 @@
+package ee.loki.bbgame.history;
+
+// dragon before task was attempted
+public record DragonState(
+    int level,
+    int lives,
+    int gold
+) {}
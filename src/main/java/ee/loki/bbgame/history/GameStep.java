@@ -3,9 +3,15 @@ package ee.loki.bbgame.history;
 import ee.loki.bbgame.gamemodel.Task;
 import ee.loki.bbgame.gamemodel.TaskResult;
 
+// dragonState is null in history recorded before it was added
 public record GameStep(
     String gameId,
     Task attemptedTask,
-    TaskResult attemptResult
+    TaskResult attemptResult,
+    DragonState dragonState
 )
-{}
+{
+    public GameStep(String gameId, Task attemptedTask, TaskResult attemptResult) {
+        this(gameId, attemptedTask, attemptResult, null);
+    }
+}
@@ -0,0 +1,99 @@
+package ee.loki.bbgame.history;
+
+import ee.loki.bbgame.gamemodel.KeywordClass;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// success rate and average reward of steps by probability, dragon level, turn range and task kind.
+// every scanning thread fills its own instance, instances are merged when threads are done
+// this class is NOT thread safe
+public class HistoryAnalytics {
+    public static final int turnRange = 25;
+    // level of steps recorded without dragon state
+    private static final int unknownLevel = -1;
+
+    static final class Aggregate {
+        long steps;
+        long succeeded;
+        long rewards;
+
+        void add(boolean success, int reward) {
+            steps++;
+            if (success) {
+                succeeded++;
+            }
+            rewards += reward;
+        }
+
+        void merge(Aggregate other) {
+            steps += other.steps;
+            succeeded += other.succeeded;
+            rewards += other.rewards;
+        }
+    }
+
+    private long steps = 0;
+    private final Map<String, Aggregate> byProbability = new HashMap<>();
+    private final Map<Integer, Aggregate> byLevel = new HashMap<>();
+    private final Map<Integer, Aggregate> byTurnRange = new HashMap<>();
+    private final Map<KeywordClass, Aggregate> byKeyword = new EnumMap<>(KeywordClass.class);
+
+    public void add(GameStep gameStep) {
+        var task = gameStep.attemptedTask();
+        var success = gameStep.attemptResult().success();
+        steps++;
+        byProbability.computeIfAbsent(task.probability(), p -> new Aggregate()).add(success, task.reward());
+        var level = gameStep.dragonState() == null ? unknownLevel : gameStep.dragonState().level();
+        byLevel.computeIfAbsent(level, l -> new Aggregate()).add(success, task.reward());
+        byTurnRange.computeIfAbsent(gameStep.attemptResult().turn() / turnRange, t -> new Aggregate())
+                .add(success, task.reward());
+        byKeyword.computeIfAbsent(KeywordClass.of(task.message()), k -> new Aggregate()).add(success, task.reward());
+    }
+
+    // adds other into this, returns this
+    public HistoryAnalytics merge(HistoryAnalytics other) {
+        steps += other.steps;
+        merge(byProbability, other.byProbability);
+        merge(byLevel, other.byLevel);
+        merge(byTurnRange, other.byTurnRange);
+        merge(byKeyword, other.byKeyword);
+        return this;
+    }
+
+    private static <K> void merge(Map<K, Aggregate> target, Map<K, Aggregate> source) {
+        source.forEach((key, aggregate) -> target.computeIfAbsent(key, k -> new Aggregate()).merge(aggregate));
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    Map<String, Aggregate> getByProbability() {
+        return byProbability;
+    }
+
+    public String report() {
+        var result = new StringBuilder();
+        appendTable(result, "probability", byProbability);
+        var levels = new TreeMap<String, Aggregate>();
+        byLevel.forEach((level, aggregate) -> levels.put(
+                level == unknownLevel ? "unknown" : String.format("%3d", level), aggregate));
+        appendTable(result, "level", levels);
+        var turns = new TreeMap<String, Aggregate>();
+        byTurnRange.forEach((range, aggregate) -> turns.put(
+                String.format("%4d-%d", range * turnRange, (range + 1) * turnRange - 1), aggregate));
+        appendTable(result, "turns", turns);
+        appendTable(result, "task kind", byKeyword);
+        return result.toString();
+    }
+
+    private static void appendTable(StringBuilder result, String title, Map<?, Aggregate> rows) {
+        result.append(String.format("%n%-24s %12s %9s %11s%n", title, "steps", "success", "avg reward"));
+        var sorted = rows instanceof TreeMap || rows instanceof EnumMap ? rows : new TreeMap<>(rows);
+        sorted.forEach((key, aggregate) -> result.append(String.format("%-24s %12d %8.1f%% %11.1f%n", key,
+                aggregate.steps, 100.0 * aggregate.succeeded / aggregate.steps, (double) aggregate.rewards / aggregate.steps)));
+    }
+}
@@ -0,0 +1,82 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameMain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// reports success rate and average reward of history by probability, dragon level, turn range and task kind.
+// journals are split into ranges at step boundaries and ranges of all files are scanned in parallel on common
+// fork-join pool, json file can only be scanned as a whole. Format of files is taken from extension
+// usage: HistoryAnalyticsMain <file>...
+public class HistoryAnalyticsMain {
+    private static final Logger logger = LoggerFactory.getLogger(HistoryAnalyticsMain.class);
+
+    private record Range(Path file, String format, long fromOffset, long toOffset) {}
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            logger.error("Usage: HistoryAnalyticsMain <file>..., files are json, jsonl or bin");
+            return;
+        }
+        var started = System.nanoTime();
+        try {
+            var analytics = analyze(BBGameMain.createObjectMapper(), Arrays.stream(args).map(Path::of).toList(),
+                    Runtime.getRuntime().availableProcessors() * 4);
+            var elapsed = Duration.ofNanos(System.nanoTime() - started);
+            logger.info("History of {} steps:{}", analytics.getSteps(), analytics.report());
+            logger.info("Scanned {} steps in {} ms, {} steps per second", analytics.getSteps(), elapsed.toMillis(),
+                    elapsed.isZero() ? 0 : analytics.getSteps() * 1_000_000_000L / elapsed.toNanos());
+        } catch (Exception e) {
+            logger.error("History analytics failed", e);
+        }
+    }
+
+    // every journal is split into about partsPerFile ranges
+    static HistoryAnalytics analyze(ObjectMapper objectMapper, List<Path> files, int partsPerFile) throws IOException {
+        var ranges = new ArrayList<Range>();
+        for (var file : files) {
+            var format = HistoryJournals.formatOf(file);
+            if (format.equals(HistoryJournals.json)) {
+                ranges.add(new Range(file, format, 0, 0));
+                continue;
+            }
+            var offsets = HistoryJournals.create(format, file, objectMapper, Duration.ZERO).split(partsPerFile);
+            for (int i = 1; i < offsets.size(); i++) {
+                ranges.add(new Range(file, format, offsets.get(i - 1), offsets.get(i)));
+            }
+        }
+        try {
+            return ranges.parallelStream()
+                    .map(range -> scan(objectMapper, range))
+                    .reduce(HistoryAnalytics::merge)
+                    .orElseGet(HistoryAnalytics::new);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static HistoryAnalytics scan(ObjectMapper objectMapper, Range range) {
+        var analytics = new HistoryAnalytics();
+        try {
+            if (range.format().equals(HistoryJournals.json)) {
+                JsonHistoryFile.read(objectMapper, range.file(), analytics::add);
+            } else {
+                // journal is only read, writer thread is never started and nothing needs closing
+                HistoryJournals.create(range.format(), range.file(), objectMapper, Duration.ZERO)
+                        .replayRange(range.fromOffset(), range.toOffset(), analytics::add);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return analytics;
+    }
+}
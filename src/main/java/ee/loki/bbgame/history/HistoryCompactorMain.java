@@ -0,0 +1,70 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameConfig;
+import ee.loki.bbgame.BBGameMain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// folds all steps of history journal into statistics snapshot and moves journal to archive file, so next start
+// begins with empty journal. Must not run while game is running. History settings are read from bbgame.properties
+// usage: HistoryCompactorMain [propertiesFile]
+public class HistoryCompactorMain {
+    private static final Logger logger = LoggerFactory.getLogger(HistoryCompactorMain.class);
+
+    private static final DateTimeFormatter archiveSuffix = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    public static void main(String[] args) {
+        var config = new BBGameConfig(args.length > 0 ? args[0] : "bbgame.properties");
+        if (config.historyFormat.equals(HistoryJournals.json) || config.historySnapshotFile.isEmpty()) {
+            logger.error("Compaction needs jsonl or binary historyFormat and historySnapshotFile");
+            return;
+        }
+        var journalFile = config.historyFormat.equals(HistoryJournals.binary)
+                ? config.historyBinaryFile : config.historyJournalFile;
+        try {
+            var archive = compact(BBGameMain.createObjectMapper(), config.historyFormat, journalFile,
+                    Path.of(config.historySnapshotFile));
+            if (archive == null) {
+                logger.info("History journal '{}' is empty, nothing to compact", journalFile);
+            } else {
+                logger.info("Compacted history journal '{}' into '{}', journal moved to '{}'", journalFile,
+                        config.historySnapshotFile, archive);
+            }
+        } catch (Exception e) {
+            logger.error("Compaction failed", e);
+        }
+    }
+
+    // returns archive file, or null when journal is empty.
+    // snapshot covering whole journal is written before journal is moved, a crash in between loses nothing:
+    // snapshot offset beyond end of new journal makes next start replay new journal from its start and rewrite
+    // snapshot before appending to it
+    static Path compact(ObjectMapper objectMapper, String format, String journalName, Path snapshotFile)
+            throws IOException {
+        var journalFile = Path.of(journalName);
+        var snapshots = new HistorySnapshotStore(objectMapper, snapshotFile, journalName, Duration.ZERO);
+        try (var journal = HistoryJournals.create(format, journalFile, objectMapper, Duration.ZERO)) {
+            if (journal.size() == 0) {
+                return null;
+            }
+            var tailStart = snapshots.load(journal.size());
+            journal.replay(tailStart, snapshots::add);
+            snapshots.setJournalOffset(journal.size());
+            snapshots.write();
+        }
+        var archive = journalFile.resolveSibling(journalFile.getFileName() + "." + LocalDateTime.now().format(archiveSuffix));
+        Files.move(journalFile, archive, StandardCopyOption.ATOMIC_MOVE);
+        snapshots.setJournalOffset(0);
+        snapshots.write();
+        return archive;
+    }
+}
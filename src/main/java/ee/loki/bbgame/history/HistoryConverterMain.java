@@ -0,0 +1,39 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameMain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// converts history between formats: json, jsonl and binary
+// usage: HistoryConverterMain <fromFormat> <fromFile> <toFormat> <toFile>
+public class HistoryConverterMain {
+    private static final Logger logger = LoggerFactory.getLogger(HistoryConverterMain.class);
+
+    public static void main(String[] args) {
+        if (args.length != 4) {
+            logger.error("Usage: HistoryConverterMain <fromFormat> <fromFile> <toFormat> <toFile>, formats: json, jsonl, binary");
+            return;
+        }
+        try {
+            var count = convert(BBGameMain.createObjectMapper(), args[0], Path.of(args[1]), args[2], Path.of(args[3]));
+            logger.info("Converted {} steps from '{}' to '{}'", count, args[1], args[3]);
+        } catch (Exception e) {
+            logger.error("Conversion failed", e);
+        }
+    }
+
+    // steps are streamed from source to target, history does not have to fit in memory
+    static long convert(ObjectMapper objectMapper, String fromFormat, Path fromFile, String toFormat, Path toFile)
+            throws IOException, InterruptedException {
+        if (Files.exists(toFile)) {
+            throw new IOException("Target file '" + toFile + "' exists already");
+        }
+        return HistoryJournals.write(toFormat, toFile, objectMapper,
+                consumer -> HistoryJournals.read(fromFormat, fromFile, objectMapper, consumer));
+    }
+}
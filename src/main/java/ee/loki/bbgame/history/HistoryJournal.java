@@ -0,0 +1,45 @@
+package ee.loki.bbgame.history;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+// durable log of game steps. Steps are only ever appended, so saving costs O(new steps) and a crash loses
+// at most the steps not yet flushed
+public interface HistoryJournal extends AutoCloseable {
+    // called on journal writer thread when steps have reached disk, journalLength is journal size after them
+    interface SyncListener {
+        void synced(List<GameStep> gameSteps, long journalLength);
+    }
+
+    // passes all steps stored so far to consumer in the order they were appended, repairs torn end of journal
+    default void replay(Consumer<GameStep> consumer) throws IOException {
+        replay(0, consumer);
+    }
+
+    // like replay, but starts from journal length reported to SyncListener earlier
+    void replay(long fromOffset, Consumer<GameStep> consumer) throws IOException;
+
+    // current size of journal in bytes
+    long size() throws IOException;
+
+    // offsets splitting journal into about parts ranges at step boundaries, first is 0 and last is journal size.
+    // ranges can be read in parallel with replayRange
+    List<Long> split(int parts) throws IOException;
+
+    // read only replay of steps between two offsets returned by split, torn end is skipped but not repaired
+    void replayRange(long fromOffset, long toOffset, Consumer<GameStep> consumer) throws IOException;
+
+    // listener is told about steps written after this call
+    void setSyncListener(SyncListener listener);
+
+    // does not wait for disk, step is written by background writer
+    void append(GameStep gameStep);
+
+    // waits until all appended steps are written and synced to disk
+    void flush() throws IOException, InterruptedException;
+
+    // waits until all appended steps are written, interrupt does not cut this short but stays set
+    @Override
+    void close() throws IOException;
+}
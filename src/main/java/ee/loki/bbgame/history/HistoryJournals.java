@@ -0,0 +1,94 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+// journal implementations by history format name. json format is a single document, not a journal
+public final class HistoryJournals {
+    public static final String json = "json";
+    public static final String jsonLines = "jsonl";
+    public static final String binary = "binary";
+
+    // produces steps for write, passing them to consumer
+    public interface StepSource {
+        void forEach(Consumer<GameStep> consumer) throws IOException, InterruptedException;
+    }
+
+    private HistoryJournals() {}
+
+    public static HistoryJournal create(String format, Path file, ObjectMapper objectMapper, Duration fsyncInterval) {
+        return switch (format) {
+            case jsonLines -> new JsonLinesJournal(objectMapper, file, fsyncInterval);
+            case binary -> new BinaryJournal(file, fsyncInterval);
+            default -> throw new IllegalArgumentException("No journal for history format '" + format + "'");
+        };
+    }
+
+    // format by file extension: .json, .bin, anything else is jsonl
+    public static String formatOf(Path file) {
+        var name = file.getFileName().toString();
+        if (name.endsWith(".json")) {
+            return json;
+        }
+        return name.endsWith(".bin") ? binary : jsonLines;
+    }
+
+    // streams all steps of history file in any format to consumer.
+    // file is only read, torn end of journal is skipped and left for the process owning journal to repair
+    public static void read(String format, Path file, ObjectMapper objectMapper, Consumer<GameStep> consumer)
+            throws IOException {
+        if (format.equals(json)) {
+            JsonHistoryFile.read(objectMapper, file, consumer);
+            return;
+        }
+        try (var journal = create(format, file, objectMapper, Duration.ZERO)) {
+            journal.replayRange(0, journal.size(), consumer);
+        }
+    }
+
+    // writes steps of source to new history file in any format, returns number of steps written.
+    // file appears only when all steps are written, failed write leaves nothing behind
+    public static long write(String format, Path file, ObjectMapper objectMapper, StepSource source)
+            throws IOException, InterruptedException {
+        var count = new long[1];
+        if (format.equals(json)) {
+            try (var writer = new JsonHistoryFile.Writer(objectMapper, file)) {
+                source.forEach(step -> {
+                    try {
+                        writer.write(step);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count[0]++;
+                });
+                writer.commit();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return count[0];
+        }
+        var tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.deleteIfExists(tempFile);
+            try (var journal = create(format, tempFile, objectMapper, Duration.ofMinutes(1))) {
+                source.forEach(step -> {
+                    journal.append(step);
+                    count[0]++;
+                });
+                // close does not report write failures
+                journal.flush();
+            }
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return count[0];
+    }
+}
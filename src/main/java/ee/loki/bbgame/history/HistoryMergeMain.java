@@ -0,0 +1,32 @@
+package ee.loki.bbgame.history;
+
+import ee.loki.bbgame.BBGameMain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// merges history files of several hosts into one, format of input files is taken from extension (.json, .jsonl, .bin)
+// usage: HistoryMergeMain <toFormat> <toFile> <fromFile>...
+public class HistoryMergeMain {
+    private static final Logger logger = LoggerFactory.getLogger(HistoryMergeMain.class);
+
+    // steps held in memory by all sort threads together
+    private static final int memorySteps = 200_000;
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            logger.error("Usage: HistoryMergeMain <toFormat> <toFile> <fromFile>..., formats: json, jsonl, binary");
+            return;
+        }
+        var inputs = Arrays.stream(args, 2, args.length).map(Path::of).toList();
+        var merger = new HistoryMerger(BBGameMain.createObjectMapper(), memorySteps, Runtime.getRuntime().availableProcessors());
+        try {
+            var count = merger.merge(inputs, args[0], Path.of(args[1]));
+            logger.info("Merged {} files into '{}', {} distinct steps", inputs.size(), args[1], count);
+        } catch (Exception e) {
+            logger.error("Merge failed", e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// merges history files from several hosts into one, steps present in more than one file are written once.
+// step is identified by game id, ad id and turn, merged history is ordered by game id, turn and ad id.
+// external sort: input files are read in parallel, each into sorted runs in temporary files, and runs are merged k-way.
+// sort threads share memorySteps, each holds at most its share of steps at once, so memory use does not depend on
+// size of inputs or number of threads
+// this class IS thread safe
+public class HistoryMerger {
+    static final Comparator<GameStep> stepOrder = Comparator
+            .comparing(GameStep::gameId, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparingInt(step -> step.attemptResult().turn())
+            .thenComparing(step -> step.attemptedTask().adId(), Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader runReader;
+    private final ObjectWriter runWriter;
+    private final int memorySteps;
+    private final int threads;
+
+    public HistoryMerger(ObjectMapper objectMapper, int memorySteps, int threads) {
+        this.objectMapper = objectMapper;
+        this.runReader = objectMapper.readerFor(GameStep.class);
+        this.runWriter = objectMapper.writerFor(GameStep.class);
+        this.memorySteps = memorySteps;
+        this.threads = threads;
+    }
+
+    // format of each input is taken from its extension. Of duplicate steps the one from earlier input is kept.
+    // returns number of steps written
+    public long merge(List<Path> inputs, String toFormat, Path toFile) throws IOException, InterruptedException {
+        if (Files.exists(toFile)) {
+            throw new IOException("Target file '" + toFile + "' exists already");
+        }
+        var runDirectory = Files.createTempDirectory(toFile.toAbsolutePath().getParent(), "history-merge");
+        try {
+            var runs = sortRuns(inputs, runDirectory);
+            return HistoryJournals.write(toFormat, toFile, objectMapper, consumer -> mergeRuns(runs, consumer));
+        } finally {
+            try (var files = Files.list(runDirectory)) {
+                for (var file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(runDirectory);
+        }
+    }
+
+    // runs in input order, so earlier run wins when merge meets duplicates
+    private List<Path> sortRuns(List<Path> inputs, Path runDirectory) throws IOException, InterruptedException {
+        var futures = new ArrayList<Future<List<Path>>>();
+        var sortThreads = Math.max(1, Math.min(threads, inputs.size()));
+        var runSteps = Math.max(1, memorySteps / sortThreads);
+        try (var executor = Executors.newFixedThreadPool(sortThreads)) {
+            for (int i = 0; i < inputs.size(); i++) {
+                var input = inputs.get(i);
+                var runPrefix = runDirectory.resolve("run-" + i + "-");
+                futures.add(executor.submit(() -> sortRuns(input, runPrefix, runSteps)));
+            }
+            var runs = new ArrayList<Path>();
+            try {
+                for (var future : futures) {
+                    runs.addAll(future.get());
+                }
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                    throw uncheckedIOException.getCause();
+                }
+                throw new IOException("Failed to read history", e.getCause());
+            }
+            return runs;
+        }
+    }
+
+    private List<Path> sortRuns(Path input, Path runPrefix, int runSteps) throws IOException {
+        var runs = new ArrayList<Path>();
+        var steps = new ArrayList<GameStep>(Math.min(runSteps, 1 << 16));
+        HistoryJournals.read(HistoryJournals.formatOf(input), input, objectMapper, step -> {
+            steps.add(step);
+            if (steps.size() >= runSteps) {
+                runs.add(writeRun(steps, Path.of(runPrefix + String.valueOf(runs.size()))));
+            }
+        });
+        if (!steps.isEmpty()) {
+            runs.add(writeRun(steps, Path.of(runPrefix + String.valueOf(runs.size()))));
+        }
+        return runs;
+    }
+
+    // sorts steps, drops duplicates and writes them as json lines, steps list is cleared
+    private Path writeRun(List<GameStep> steps, Path runFile) {
+        steps.sort(stepOrder);
+        try (var out = new BufferedOutputStream(Files.newOutputStream(runFile), 1 << 16)) {
+            GameStep previous = null;
+            for (var step : steps) {
+                if (previous == null || stepOrder.compare(previous, step) != 0) {
+                    out.write(runWriter.writeValueAsBytes(step));
+                    out.write('\n');
+                }
+                previous = step;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        steps.clear();
+        return runFile;
+    }
+
+    private record RunCursor(int run, MappingIterator<GameStep> steps, GameStep head) {}
+
+    private void mergeRuns(List<Path> runs, Consumer<GameStep> consumer) throws IOException {
+        var queue = new PriorityQueue<RunCursor>(Math.max(1, runs.size()), Comparator
+                .comparing(RunCursor::head, stepOrder)
+                .thenComparingInt(RunCursor::run));
+        var open = new ArrayList<MappingIterator<GameStep>>();
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                MappingIterator<GameStep> steps = runReader.readValues(runs.get(i).toFile());
+                open.add(steps);
+                if (steps.hasNextValue()) {
+                    queue.add(new RunCursor(i, steps, steps.nextValue()));
+                }
+            }
+            GameStep previous = null;
+            while (!queue.isEmpty()) {
+                var cursor = queue.poll();
+                if (previous == null || stepOrder.compare(previous, cursor.head()) != 0) {
+                    consumer.accept(cursor.head());
+                    previous = cursor.head();
+                }
+                if (cursor.steps().hasNextValue()) {
+                    queue.add(new RunCursor(cursor.run(), cursor.steps(), cursor.steps().nextValue()));
+                }
+            }
+        } finally {
+            for (var steps : open) {
+                steps.close();
+            }
+        }
+    }
+}
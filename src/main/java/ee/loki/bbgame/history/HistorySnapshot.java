@@ -0,0 +1,32 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.gamemodel.KeywordClass;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+// success statistics of all steps in journal up to journalOffset, and of journals archived by compaction before it.
+// journal is the name of journal file snapshot was taken from
+public record HistorySnapshot(String journal, long journalOffset, List<Bucket> buckets) {
+    // statistic of SuccessRateIndex, levelBand and keywordClass are null for coarser buckets
+    public record Bucket(String probability, Integer levelBand, KeywordClass keywordClass, long succeeded, long failed) {}
+
+    // null when file does not exist
+    static HistorySnapshot read(ObjectMapper objectMapper, Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        return objectMapper.readValue(file.toFile(), HistorySnapshot.class);
+    }
+
+    // replaces file atomically, crash leaves either old or new snapshot
+    void write(ObjectMapper objectMapper, Path file) throws IOException {
+        var tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        objectMapper.writeValue(tempFile.toFile(), this);
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
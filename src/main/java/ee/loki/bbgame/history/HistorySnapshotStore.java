@@ -0,0 +1,114 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// keeps statistics snapshot of one journal up to date, so startup reads snapshot and replays only journal tail after it.
+// counts follow the journal writer: synced steps are added on writer thread and snapshot file is rewritten at most
+// once per interval, so snapshot never covers steps that are not on disk yet
+// this class is NOT thread safe, after load it is used by journal writer thread only, and by closer after journal is closed
+public class HistorySnapshotStore implements HistoryJournal.SyncListener {
+    private static final Logger logger = LoggerFactory.getLogger(HistorySnapshotStore.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+    private final String journalName;
+    private final long intervalNanos;
+
+    private final SuccessRateIndex index = new SuccessRateIndex(0);
+    private long journalOffset = 0;
+    private long lastWrite = System.nanoTime();
+    private boolean changed = false;
+
+    public HistorySnapshotStore(ObjectMapper objectMapper, Path file, String journalName, Duration interval) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+        this.journalName = journalName;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    // reads snapshot file and returns journal offset where tail not covered by snapshot starts.
+    // snapshot of another journal is ignored. Offset beyond journal end means compaction archived journal after
+    // writing snapshot, then whole current journal is tail and snapshot must be written again before journal grows
+    // past the stale offset. Snapshot of older version without buckets is ignored
+    public long load(long journalSize) throws IOException {
+        index.clear();
+        journalOffset = 0;
+        var snapshot = HistorySnapshot.read(objectMapper, file);
+        if (snapshot == null) {
+            return 0;
+        }
+        if (snapshot.buckets() == null) {
+            logger.warn("History snapshot '{}' has no statistics buckets, ignoring it", file);
+            return 0;
+        }
+        if (snapshot.buckets().stream().anyMatch(bucket -> bucket.succeeded() < 0 || bucket.failed() < 0)) {
+            logger.warn("History snapshot '{}' has negative counts, ignoring it", file);
+            return 0;
+        }
+        if (!journalName.equals(snapshot.journal())) {
+            logger.warn("History snapshot '{}' is of journal '{}', not '{}', ignoring it", file, snapshot.journal(), journalName);
+            return 0;
+        }
+        snapshot.buckets().forEach(index::add);
+        if (snapshot.journalOffset() > journalSize) {
+            logger.warn("History snapshot '{}' is beyond end of journal '{}', replaying whole journal", file, journalName);
+            changed = true;
+            return 0;
+        }
+        journalOffset = snapshot.journalOffset();
+        return journalOffset;
+    }
+
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    public void forEachBucket(Consumer<HistorySnapshot.Bucket> consumer) {
+        index.forEachBucket(consumer);
+    }
+
+    // adds step that is already in journal before journalOffset
+    public void add(GameStep gameStep) {
+        index.add(gameStep);
+        changed = true;
+    }
+
+    public void setJournalOffset(long journalOffset) {
+        this.changed |= this.journalOffset != journalOffset;
+        this.journalOffset = journalOffset;
+    }
+
+    @Override
+    public void synced(List<GameStep> gameSteps, long journalLength) {
+        gameSteps.forEach(this::add);
+        setJournalOffset(journalLength);
+        if (System.nanoTime() - lastWrite >= intervalNanos) {
+            try {
+                write();
+            } catch (IOException e) {
+                logger.error("Failed to write history snapshot '{}'", file, e);
+            }
+        }
+    }
+
+    // writes snapshot file if anything has changed since last write
+    public void write() throws IOException {
+        lastWrite = System.nanoTime();
+        if (!changed) {
+            return;
+        }
+        var buckets = new ArrayList<HistorySnapshot.Bucket>();
+        index.forEachBucket(buckets::add);
+        new HistorySnapshot(journalName, journalOffset, buckets).write(objectMapper, file);
+        changed = false;
+    }
+}
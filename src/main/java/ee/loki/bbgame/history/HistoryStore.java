@@ -1,77 +1,238 @@
 package ee.loki.bbgame.history;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.gamemodel.KeywordClass;
 import ee.loki.bbgame.gamemodel.Task;
 import ee.loki.bbgame.gamemodel.TaskResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
+// success statistics of all steps ever played, raw steps are kept only for the last retainedSteps.
+// history is streamed through calculateStatistic on load, so heap does not grow with number of games played.
+// statistics are read without locking, selecting next task in one game does not wait for other games
 // this class IS thread safe
 public class HistoryStore {
     private static final Logger logger = LoggerFactory.getLogger(HistoryStore.class);
 
     private final ObjectMapper objectMapper;
+    // negative keeps all steps
+    private final int retainedSteps;
 
-    private final Map<String, ResolveStatistic> probabilityStats = new HashMap<>();
-    private List<GameStep> history = new ArrayList<>();
+    private final SuccessRateIndex successRates;
+    // latest table handed out, replaced when index has changed since
+    private volatile SuccessRateTable successRateTable = null;
+    private final ArrayDeque<GameStep> recentSteps = new ArrayDeque<>();
+    // when set every added step is appended to journal, saveGameHistory is not needed
+    private HistoryJournal journal = null;
+    private HistorySnapshotStore snapshots = null;
+    // without journal: json file history was loaded from or saved to, and steps added after that
+    private Path savedFile = null;
+    private final List<GameStep> unsavedSteps = new ArrayList<>();
 
     public HistoryStore(ObjectMapper objectMapper) {
+        this(objectMapper, -1);
+    }
+
+    public HistoryStore(ObjectMapper objectMapper, int retainedSteps) {
+        this(objectMapper, retainedSteps, 1);
+    }
+
+    // minSamples: level and task kind specific success rate is used when it is based on at least this many outcomes
+    public HistoryStore(ObjectMapper objectMapper, int retainedSteps, int minSamples) {
         this.objectMapper = objectMapper;
+        this.retainedSteps = retainedSteps;
+        this.successRates = new SuccessRateIndex(minSamples);
     }
 
     public synchronized void loadGameHistory(String historyFileName) {
+        var historyFile = Path.of(historyFileName);
+        if (!Files.exists(historyFile)) {
+            logger.info("History file '{}' not found, starting with empty history", historyFileName);
+            return;
+        }
+        clear();
+        var loaded = new long[1];
         try {
-            history = objectMapper.readValue(new File(historyFileName), new TypeReference<List<GameStep>>() {});
+            JsonHistoryFile.read(objectMapper, historyFile, step -> {
+                acceptStep(step);
+                loaded[0]++;
+            });
+            savedFile = historyFile;
+            logger.info("Loaded {} steps from '{}'", loaded[0], historyFileName);
         } catch (IOException e) {
-            logger.error("Failed to load history file.", e);
-            history = new ArrayList<>();
+            logger.error("Failed to load history file, {} steps loaded before error.", loaded[0], e);
+        }
+    }
+
+    // loads history from journal and appends all further steps to it.
+    // if journal is empty and legacy json history file exists, its steps are imported into journal
+    public synchronized void openJournal(HistoryJournal journal, String legacyHistoryFileName) throws IOException {
+        openJournal(journal, null, legacyHistoryFileName);
+    }
+
+    // with snapshots statistics are loaded from snapshot and only journal tail after it is replayed,
+    // retained steps then come from the tail only
+    public synchronized void openJournal(HistoryJournal journal, HistorySnapshotStore snapshots,
+                                         String legacyHistoryFileName) throws IOException {
+        clear();
+        long tailStart = 0;
+        if (snapshots != null) {
+            tailStart = snapshots.load(journal.size());
+            snapshots.forEachBucket(successRates::add);
+        }
+        var replayed = new long[1];
+        journal.replay(tailStart, step -> {
+            acceptStep(step);
+            if (snapshots != null) {
+                snapshots.add(step);
+            }
+            replayed[0]++;
+        });
+        if (snapshots != null) {
+            snapshots.setJournalOffset(journal.size());
+            // snapshot left by interrupted compaction is replaced before steps are appended past its stale offset
+            snapshots.write();
+            journal.setSyncListener(snapshots);
+            logger.info("Loaded statistics snapshot, replayed {} steps of journal after it", replayed[0]);
+        }
+        var empty = replayed[0] == 0 && (snapshots == null || snapshots.isEmpty());
+        if (empty && legacyHistoryFileName != null && Files.exists(Path.of(legacyHistoryFileName))) {
+            JsonHistoryFile.read(objectMapper, Path.of(legacyHistoryFileName), step -> {
+                acceptStep(step);
+                journal.append(step);
+                replayed[0]++;
+            });
+            // imported steps must be on disk before games add more, a journal holding only part of them is not
+            // imported again on next start
+            try {
+                journal.flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while importing '" + legacyHistoryFileName + "'");
+            }
+            logger.info("Imported {} steps from '{}' into history journal", replayed[0], legacyHistoryFileName);
+        } else {
+            logger.info("Loaded {} steps from history journal", replayed[0]);
         }
-        calculateStatistics();
+        this.journal = journal;
+        this.snapshots = snapshots;
     }
 
-    private void calculateStatistics() {
-        for (GameStep gameStep : history) {
-            calculateStatistic(gameStep);
+    // writes out steps still queued for journal, and snapshot covering all of them
+    public void closeJournal() throws IOException {
+        HistoryJournal closing;
+        HistorySnapshotStore closingSnapshots;
+        synchronized (this) {
+            closing = journal;
+            closingSnapshots = snapshots;
+            journal = null;
+            snapshots = null;
+        }
+        if (closing != null) {
+            closing.close();
+        }
+        if (closingSnapshots != null) {
+            closingSnapshots.write();
         }
     }
 
-    private void calculateStatistic(GameStep gameStep) {
-        var statistic = probabilityStats.computeIfAbsent(gameStep.attemptedTask().probability(), s -> new ResolveStatistic());
-        if (gameStep.attemptResult().success()) {
-            statistic.succeeded++;
-        } else  {
-            statistic.failed++;
+    private void clear() {
+        successRates.clear();
+        recentSteps.clear();
+        unsavedSteps.clear();
+        savedFile = null;
+    }
+
+    private void acceptStep(GameStep gameStep) {
+        calculateStatistic(gameStep);
+        retain(gameStep);
+    }
+
+    private void retain(GameStep gameStep) {
+        if (retainedSteps != 0) {
+            if (retainedSteps > 0 && recentSteps.size() >= retainedSteps) {
+                recentSteps.removeFirst();
+            }
+            recentSteps.addLast(gameStep);
         }
     }
 
-    public synchronized double getSuccessRate(String probability) {
-        var statistic = probabilityStats.get(probability);
-        if (statistic==null) {
-            return 0.0;
+    private void calculateStatistic(GameStep gameStep) {
+        successRates.add(gameStep);
+    }
+
+    public double getSuccessRate(String probability) {
+        return successRates.getSuccessRate(probability);
+    }
+
+    // success rate of tasks of this probability and kind at dragon level, coarser rate when there is too little data
+    public double getSuccessRate(String probability, int level, KeywordClass keywordClass) {
+        return successRates.getSuccessRate(probability, level, keywordClass);
+    }
+
+    // all success rates at once, for scoring a whole message board against one consistent set of statistics.
+    // table is rebuilt only when a step has been added since last call, games share the same table until then
+    public SuccessRateTable getSuccessRateTable() {
+        var table = successRateTable;
+        if (table == null || table.getVersion() != successRates.getVersion()) {
+            table = successRates.createTable();
+            successRateTable = table;
         }
-        return (double) statistic.succeeded / (statistic.failed + statistic.succeeded);
+        return table;
     }
 
+    // steps of file history was loaded from are copied over as a stream, then steps added since load are appended
     public synchronized void saveGameHistory(String historyFileName) {
-        try {
-            objectMapper.writeValue(new File(historyFileName), history);
-        } catch (IOException e) {
+        var historyFile = Path.of(historyFileName);
+        try (var writer = new JsonHistoryFile.Writer(objectMapper, historyFile)) {
+            if (savedFile != null && Files.exists(savedFile)) {
+                JsonHistoryFile.read(objectMapper, savedFile, step -> {
+                    try {
+                        writer.write(step);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            for (var gameStep : unsavedSteps) {
+                writer.write(gameStep);
+            }
+            writer.commit();
+        } catch (IOException | UncheckedIOException e) {
             logger.error("Failed to save history file.", e);
+            return;
         }
+        savedFile = historyFile;
+        unsavedSteps.clear();
+    }
+
+    // statistic is updated outside of lock, games contend only when they resolved task of same probability
+    public void addGameStep(String gameId, Task nextTask, TaskResult taskResult) {
+        addGameStep(gameId, nextTask, taskResult, null);
     }
 
-    public synchronized void addGameStep(String gameId, Task nextTask, TaskResult taskResult) {
-        var gameStep = new GameStep(gameId, nextTask, taskResult);
-        history.add(gameStep);
+    public void addGameStep(String gameId, Task nextTask, TaskResult taskResult, DragonState dragonState) {
+        var gameStep = new GameStep(gameId, nextTask, taskResult, dragonState);
         calculateStatistic(gameStep);
+        synchronized (this) {
+            retain(gameStep);
+            if (journal != null) {
+                journal.append(gameStep);
+            } else {
+                unsavedSteps.add(gameStep);
+            }
+        }
     }
 
+    // last retainedSteps steps, oldest first
     synchronized List<GameStep> getHistory() {
-        return List.of(history.toArray(new GameStep[0]));
+        return List.of(recentSteps.toArray(new GameStep[0]));
     }
 }
@@ -0,0 +1,75 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Consumer;
+
+// history format where all steps are one json array.
+// steps are read and written one at a time, whole history is never in memory
+public final class JsonHistoryFile {
+    private JsonHistoryFile() {}
+
+    // passes steps to consumer in file order. Steps before a damaged part of file are passed before exception is thrown
+    public static void read(ObjectMapper objectMapper, Path file, Consumer<GameStep> consumer) throws IOException {
+        var reader = objectMapper.readerFor(GameStep.class);
+        try (var parser = objectMapper.createParser(file.toFile())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("History file '" + file + "' does not contain json array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(reader.readValue(parser));
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Unexpected " + parser.currentToken() + " in history file '" + file + "'");
+            }
+        }
+    }
+
+    // writes to temporary file next to target, target is replaced only by commit().
+    // closing without commit deletes temporary file and leaves target as it was
+    public static class Writer implements AutoCloseable {
+        private final Path file;
+        private final Path tempFile;
+        private final ObjectWriter writer;
+        private final JsonGenerator generator;
+        private boolean committed = false;
+
+        public Writer(ObjectMapper objectMapper, Path file) throws IOException {
+            this.file = file;
+            this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            this.writer = objectMapper.writerFor(GameStep.class);
+            this.generator = objectMapper.createGenerator(tempFile.toFile(), JsonEncoding.UTF8);
+            generator.writeStartArray();
+        }
+
+        public void write(GameStep gameStep) throws IOException {
+            writer.writeValue(generator, gameStep);
+        }
+
+        public void commit() throws IOException {
+            generator.writeEndArray();
+            generator.close();
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                try {
+                    generator.close();
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+        }
+    }
+}
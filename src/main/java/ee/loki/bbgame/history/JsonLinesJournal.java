@@ -0,0 +1,150 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+// journal with one json document per line.
+// process killed mid-write can leave last line incomplete, replay cuts it off
+// this class IS thread safe
+public class JsonLinesJournal extends BatchingJournal {
+    private static final Logger logger = LoggerFactory.getLogger(JsonLinesJournal.class);
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public JsonLinesJournal(ObjectMapper objectMapper, Path file, Duration fsyncInterval) {
+        super(file, fsyncInterval);
+        this.reader = objectMapper.readerFor(GameStep.class);
+        this.writer = objectMapper.writerFor(GameStep.class);
+    }
+
+    @Override
+    public synchronized void replay(long fromOffset, Consumer<GameStep> consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        var fileLength = Files.size(file);
+        var validLength = scan(fromOffset, fileLength, consumer);
+        if (validLength < fileLength) {
+            truncate(validLength, fileLength);
+        }
+    }
+
+    @Override
+    public void replayRange(long fromOffset, long toOffset, Consumer<GameStep> consumer) throws IOException {
+        if (Files.exists(file)) {
+            scan(fromOffset, toOffset, consumer);
+        }
+    }
+
+    // every part starts after a line end
+    @Override
+    public List<Long> split(int parts) throws IOException {
+        var fileLength = size();
+        var result = new ArrayList<Long>();
+        result.add(0L);
+        if (fileLength > 0) {
+            try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                var buffer = ByteBuffer.allocate(1 << 12);
+                for (int part = 1; part < parts; part++) {
+                    var offset = lineStartAfter(channel, buffer, Math.max(result.getLast(), fileLength * part / parts));
+                    if (offset >= fileLength) {
+                        break;
+                    }
+                    if (offset > result.getLast()) {
+                        result.add(offset);
+                    }
+                }
+            }
+            result.add(fileLength);
+        }
+        return result;
+    }
+
+    private static long lineStartAfter(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        var position = offset;
+        while (true) {
+            buffer.clear();
+            var read = channel.read(buffer, position);
+            if (read < 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    // returns offset after last complete line
+    private long scan(long fromOffset, long toOffset, Consumer<GameStep> consumer) throws IOException {
+        // lines are parsed straight from read buffer, only line crossing buffer end is moved to buffer start
+        var buffer = new byte[1 << 16];
+        var filled = 0;
+        long bufferStart = fromOffset;
+        var remaining = toOffset - fromOffset;
+        var lineNumber = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            in.skipNBytes(fromOffset);
+            int read;
+            while (remaining > 0 && (read = in.read(buffer, filled, (int) Math.min(buffer.length - filled, remaining))) >= 0) {
+                remaining -= read;
+                filled += read;
+                var lineStart = 0;
+                for (int i = 0; i < filled; i++) {
+                    if (buffer[i] == '\n') {
+                        lineNumber++;
+                        parseLine(buffer, lineStart, i - lineStart, lineNumber, consumer);
+                        lineStart = i + 1;
+                    }
+                }
+                System.arraycopy(buffer, lineStart, buffer, 0, filled - lineStart);
+                filled -= lineStart;
+                bufferStart += lineStart;
+                if (filled == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+        }
+        return bufferStart;
+    }
+
+    private void parseLine(byte[] buffer, int offset, int length, int lineNumber, Consumer<GameStep> consumer) {
+        if (length == 0) {
+            return;
+        }
+        try {
+            consumer.accept(reader.readValue(buffer, offset, length));
+        } catch (IOException e) {
+            // complete line can only be broken if file was damaged, skipping it keeps the rest
+            logger.error("Skipping unreadable line {} of history journal '{}'", lineNumber, file, e);
+        }
+    }
+
+    @Override
+    protected void encode(List<GameStep> gameSteps, ByteArrayOutputStream out) throws IOException {
+        for (var gameStep : gameSteps) {
+            writer.writeValue(out, gameStep);
+            out.write('\n');
+        }
+    }
+}
@@ -1,6 +0,0 @@
-package ee.loki.bbgame.history;
-
-public class ResolveStatistic {
-    public int succeeded = 0;
-    public int failed = 0;
-}
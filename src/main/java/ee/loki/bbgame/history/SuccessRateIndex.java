@@ -0,0 +1,238 @@
+package ee.loki.bbgame.history;
+
+import ee.loki.bbgame.gamemodel.KeywordClass;
+import ee.loki.bbgame.gamemodel.ProbabilityClasses;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+// success statistics by probability, and within probability by dragon level band, and by level band and task kind.
+// counters of all probabilities are in primitive arrays indexed by ProbabilityClasses id, so lookup does no string
+// hashing. Lookup uses the most specific bucket with at least minSamples outcomes, falling back to coarser ones.
+// Steps without dragon state count only for probability.
+// Every counter packs success and failure counts into one long, succeeded in high 32 bits and failed in low 32 bits,
+// so both are updated and read together without locking. Counter that would not fit into 32 bits is halved together
+// with the other one, so success rate stays about the same instead of failures carrying over into successes
+// this class IS thread safe
+public class SuccessRateIndex {
+    public static final int levelBands = 6;
+    private static final int keywordClasses = KeywordClass.values().length;
+
+    // counters of one probability: all, by level band, by level band and task kind
+    private static final int byLevelStart = 1;
+    private static final int byLevelAndKeywordStart = byLevelStart + levelBands;
+    private static final int stride = byLevelAndKeywordStart + levelBands * keywordClasses;
+    // probabilities per segment, segments are added as new probabilities appear and never move
+    private static final int segmentIds = 32;
+
+    private static final long failedMask = 0xffffffffL;
+
+    private volatile AtomicLongArray[] segments = new AtomicLongArray[0];
+    private final long minSamples;
+    // changes with every added outcome, tells if a table taken earlier is out of date
+    private final AtomicLong version = new AtomicLong();
+
+    public SuccessRateIndex(long minSamples) {
+        this.minSamples = minSamples;
+    }
+
+    // levels 0, 1, 2-3, 4-7, 8-15, 16 and above
+    public static int levelBand(int level) {
+        return Math.min(levelBands - 1, 32 - Integer.numberOfLeadingZeros(Math.max(0, level)));
+    }
+
+    // position of level band and task kind in SuccessRateTable rows
+    public static int bucket(int levelBand, KeywordClass keywordClass) {
+        return levelBand * keywordClasses + keywordClass.ordinal();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void add(GameStep gameStep) {
+        var task = gameStep.attemptedTask();
+        var id = task.probabilityId();
+        var segment = segmentForUpdate(id);
+        var base = (id % segmentIds) * stride;
+        var succeeded = gameStep.attemptResult().success() ? 1 : 0;
+        var failed = 1 - succeeded;
+        addCounts(segment, base, succeeded, failed);
+        var dragonState = gameStep.dragonState();
+        if (dragonState != null) {
+            var band = levelBand(dragonState.level());
+            addCounts(segment, base + byLevelStart + band, succeeded, failed);
+            addCounts(segment, base + byLevelAndKeywordStart + bucket(band, KeywordClass.of(task.message())),
+                    succeeded, failed);
+        }
+        version.incrementAndGet();
+    }
+
+    // counts must not be negative, see HistorySnapshotStore.load
+    public void add(HistorySnapshot.Bucket bucket) {
+        if (bucket.succeeded() < 0 || bucket.failed() < 0) {
+            throw new IllegalArgumentException("Negative counts in bucket " + bucket);
+        }
+        var id = ProbabilityClasses.idOf(bucket.probability());
+        var base = (id % segmentIds) * stride;
+        int offset;
+        if (bucket.levelBand() == null) {
+            offset = 0;
+        } else if (bucket.keywordClass() == null) {
+            offset = byLevelStart + bucket.levelBand();
+        } else {
+            offset = byLevelAndKeywordStart + bucket(bucket.levelBand(), bucket.keywordClass());
+        }
+        addCounts(segmentForUpdate(id), base + offset, bucket.succeeded(), bucket.failed());
+        version.incrementAndGet();
+    }
+
+    private static void addCounts(AtomicLongArray segment, int index, long succeeded, long failed) {
+        while (true) {
+            var counts = segment.get(index);
+            var newSucceeded = (counts >>> 32) + succeeded;
+            var newFailed = (counts & failedMask) + failed;
+            while (newSucceeded > failedMask || newFailed > failedMask) {
+                newSucceeded >>>= 1;
+                newFailed >>>= 1;
+            }
+            if (segment.compareAndSet(index, counts, newSucceeded << 32 | newFailed)) {
+                return;
+            }
+        }
+    }
+
+    // all counters with outcomes as snapshot buckets
+    public void forEachBucket(Consumer<HistorySnapshot.Bucket> consumer) {
+        var keywords = KeywordClass.values();
+        var current = segments;
+        for (int id = 0; id < current.length * segmentIds; id++) {
+            var segment = current[id / segmentIds];
+            var base = (id % segmentIds) * stride;
+            if (segment.get(base) == 0) {
+                continue;
+            }
+            var probability = ProbabilityClasses.name(id);
+            accept(consumer, probability, null, null, segment.get(base));
+            for (int band = 0; band < levelBands; band++) {
+                accept(consumer, probability, band, null, segment.get(base + byLevelStart + band));
+                for (var keyword : keywords) {
+                    accept(consumer, probability, band, keyword,
+                            segment.get(base + byLevelAndKeywordStart + bucket(band, keyword)));
+                }
+            }
+        }
+    }
+
+    private static void accept(Consumer<HistorySnapshot.Bucket> consumer, String probability, Integer levelBand,
+                               KeywordClass keywordClass, long counts) {
+        if (counts != 0) {
+            consumer.accept(new HistorySnapshot.Bucket(probability, levelBand, keywordClass, counts >>> 32,
+                    counts & failedMask));
+        }
+    }
+
+    public boolean isEmpty() {
+        var current = segments;
+        for (var segment : current) {
+            for (int i = 0; i < segmentIds; i++) {
+                if (segment.get(i * stride) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public synchronized void clear() {
+        segments = new AtomicLongArray[0];
+        version.incrementAndGet();
+    }
+
+    // success rates of every probability, level band and task kind, with fallback to coarser buckets already applied
+    public SuccessRateTable createTable() {
+        var tableVersion = version.get();
+        var current = segments;
+        var rows = new double[current.length * segmentIds][];
+        for (int id = 0; id < rows.length; id++) {
+            var segment = current[id / segmentIds];
+            var base = (id % segmentIds) * stride;
+            var all = successRate(segment.get(base), 1);
+            if (Double.isNaN(all)) {
+                continue;
+            }
+            var row = new double[levelBands * keywordClasses];
+            for (int band = 0; band < levelBands; band++) {
+                var byLevel = successRate(segment.get(base + byLevelStart + band), minSamples);
+                var fallback = Double.isNaN(byLevel) ? all : byLevel;
+                for (int keyword = 0; keyword < keywordClasses; keyword++) {
+                    var index = band * keywordClasses + keyword;
+                    var rate = successRate(segment.get(base + byLevelAndKeywordStart + index), minSamples);
+                    row[index] = Double.isNaN(rate) ? fallback : rate;
+                }
+            }
+            rows[id] = row;
+        }
+        return new SuccessRateTable(tableVersion, rows);
+    }
+
+    public double getSuccessRate(String probability) {
+        var id = ProbabilityClasses.idOf(probability);
+        var segment = segmentForRead(id);
+        if (segment == null) {
+            return 0.0;
+        }
+        var rate = successRate(segment.get((id % segmentIds) * stride), 1);
+        return Double.isNaN(rate) ? 0.0 : rate;
+    }
+
+    public double getSuccessRate(String probability, int level, KeywordClass keywordClass) {
+        var id = ProbabilityClasses.idOf(probability);
+        var segment = segmentForRead(id);
+        if (segment == null) {
+            return 0.0;
+        }
+        var base = (id % segmentIds) * stride;
+        var band = levelBand(level);
+        var rate = successRate(segment.get(base + byLevelAndKeywordStart + bucket(band, keywordClass)), minSamples);
+        if (Double.isNaN(rate)) {
+            rate = successRate(segment.get(base + byLevelStart + band), minSamples);
+        }
+        if (Double.isNaN(rate)) {
+            rate = successRate(segment.get(base), 1);
+        }
+        return Double.isNaN(rate) ? 0.0 : rate;
+    }
+
+    // NaN when there are fewer than minSamples outcomes
+    private static double successRate(long counts, long minSamples) {
+        var succeeded = counts >>> 32;
+        var total = succeeded + (counts & failedMask);
+        return total == 0 || total < minSamples ? Double.NaN : (double) succeeded / total;
+    }
+
+    private AtomicLongArray segmentForRead(int id) {
+        var current = segments;
+        return id / segmentIds < current.length ? current[id / segmentIds] : null;
+    }
+
+    private AtomicLongArray segmentForUpdate(int id) {
+        var segment = segmentForRead(id);
+        return segment != null ? segment : grow(id / segmentIds);
+    }
+
+    private synchronized AtomicLongArray grow(int segmentIndex) {
+        var current = segments;
+        if (segmentIndex >= current.length) {
+            var updated = Arrays.copyOf(current, segmentIndex + 1);
+            for (int i = current.length; i < updated.length; i++) {
+                updated[i] = new AtomicLongArray(segmentIds * stride);
+            }
+            segments = updated;
+            current = updated;
+        }
+        return current[segmentIndex];
+    }
+}
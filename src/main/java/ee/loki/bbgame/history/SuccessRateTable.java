@@ -0,0 +1,33 @@
+package ee.loki.bbgame.history;
+
+import ee.loki.bbgame.gamemodel.KeywordClass;
+import ee.loki.bbgame.gamemodel.ProbabilityClasses;
+
+// read only success rates taken from SuccessRateIndex at one moment, shared by all games until statistics change.
+// rows are indexed by ProbabilityClasses id, row of a probability holds rate of every level band and task kind,
+// indexed by SuccessRateIndex.bucket
+// this class IS thread safe
+public final class SuccessRateTable {
+    private final long version;
+    private final double[][] rows;
+
+    SuccessRateTable(long version, double[][] rows) {
+        this.version = version;
+        this.rows = rows;
+    }
+
+    // version of index statistics table was created from
+    public long getVersion() {
+        return version;
+    }
+
+    // null for probability without history, row must not be modified
+    public double[] getRow(int probabilityId) {
+        return probabilityId < rows.length ? rows[probabilityId] : null;
+    }
+
+    public double getSuccessRate(String probability, int level, KeywordClass keywordClass) {
+        var row = getRow(ProbabilityClasses.idOf(probability));
+        return row == null ? 0.0 : row[SuccessRateIndex.bucket(SuccessRateIndex.levelBand(level), keywordClass)];
+    }
+}
@@ -0,0 +1,161 @@
+package ee.loki.bbgame.rest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+// limits number of requests in flight, limit is discovered from measured round-trip times.
+// while latency stays under tolerance * no load latency limit grows by a share of sqrt(limit) with every response,
+// when latency climbs limit shrinks proportionally (gradient), dropped requests (io failures, 429/5xx) cut it by backoffRatio.
+// waiting requests are queued per key (game id) and served round-robin, so one busy game can not starve others.
+// permits are handed out as futures so waiting requests do not hold a thread
+// this class IS thread safe
+class AdaptiveConcurrencyLimiter {
+    enum Outcome {
+        SUCCESS,
+        DROPPED,
+        // request was cancelled or interrupted, tells nothing about server
+        IGNORED,
+    }
+
+    static final double tolerance = 2.0;
+    static final double smoothing = 0.2;
+    static final double backoffRatio = 0.9;
+    static final int rttWindow = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final Map<String, Queue<CompletableFuture<Void>>> waitingByKey = new HashMap<>();
+    // keys that have waiters, in the order they are served
+    private final Queue<String> rotation = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight = 0;
+    private int waiting = 0;
+    private long noLoadRttNanos = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples = 0;
+    private long droppedRequests = 0;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = clamp(initialLimit);
+    }
+
+    // returned future completes when permit is granted, caller must call release() exactly once after that
+    synchronized CompletableFuture<Void> acquire(String key) {
+        if (waiting == 0 && inFlight < getLimit()) {
+            inFlight++;
+            return CompletableFuture.completedFuture(null);
+        }
+        var permit = new CompletableFuture<Void>();
+        var queue = waitingByKey.computeIfAbsent(key, k -> new ArrayDeque<>());
+        if (queue.isEmpty()) {
+            rotation.add(key);
+        }
+        queue.add(permit);
+        waiting++;
+        return permit;
+    }
+
+    void release(long rttNanos, Outcome outcome) {
+        List<CompletableFuture<Void>> granted;
+        synchronized (this) {
+            update(rttNanos, outcome);
+            inFlight--;
+            granted = grantPermits();
+        }
+        // complete outside of lock, dependent stages may start next request right away
+        while (!granted.isEmpty()) {
+            var returned = 0;
+            for (var permit : granted) {
+                if (!permit.complete(null)) {
+                    // waiter has given up already, permit goes to the next one
+                    returned++;
+                }
+            }
+            if (returned == 0) {
+                return;
+            }
+            synchronized (this) {
+                inFlight -= returned;
+                granted = grantPermits();
+            }
+        }
+    }
+
+    private List<CompletableFuture<Void>> grantPermits() {
+        var result = new ArrayList<CompletableFuture<Void>>();
+        while (inFlight < getLimit() && !rotation.isEmpty()) {
+            var key = rotation.poll();
+            var queue = waitingByKey.get(key);
+            result.add(queue.poll());
+            waiting--;
+            inFlight++;
+            if (queue.isEmpty()) {
+                waitingByKey.remove(key);
+            } else {
+                rotation.add(key);
+            }
+        }
+        return result;
+    }
+
+    private void update(long rttNanos, Outcome outcome) {
+        switch (outcome) {
+            case IGNORED -> {
+            }
+            case DROPPED -> {
+                limit = clamp(limit * backoffRatio);
+                droppedRequests++;
+            }
+            case SUCCESS -> {
+                updateNoLoadRtt(rttNanos);
+                // with few requests in flight latency tells nothing about how many more server could take
+                if (inFlight * 2 < limit) {
+                    return;
+                }
+                var gradient = Math.clamp(tolerance * noLoadRttNanos / Math.max(1, rttNanos), 0.5, 1.0);
+                var newLimit = limit * gradient + Math.sqrt(limit);
+                limit = clamp((1 - smoothing) * limit + smoothing * newLimit);
+            }
+        }
+    }
+
+    // lowest latency of previous window, so baseline can follow server getting permanently slower or faster
+    private void updateNoLoadRtt(long rttNanos) {
+        windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        noLoadRttNanos = Math.min(noLoadRttNanos, rttNanos);
+        if (++windowSamples >= rttWindow) {
+            noLoadRttNanos = windowMinRttNanos;
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.clamp(value, minLimit, maxLimit);
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getWaiting() {
+        return waiting;
+    }
+
+    synchronized long getDroppedRequests() {
+        return droppedRequests;
+    }
+}
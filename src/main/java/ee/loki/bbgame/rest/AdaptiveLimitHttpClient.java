@@ -0,0 +1,143 @@
+package ee.loki.bbgame.rest;
+
+import ee.loki.bbgame.BBGameConfig;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+// puts adaptive concurrency limit in front of another http client.
+// requests over the limit wait in per game queues, game id is first path segment after server url
+// this class IS thread safe
+public class AdaptiveLimitHttpClient implements IHttpClient {
+    private final IHttpClient httpClient;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final String basePath;
+
+    public AdaptiveLimitHttpClient(IHttpClient httpClient, BBGameConfig gameConfig) {
+        this.httpClient = httpClient;
+        this.limiter = new AdaptiveConcurrencyLimiter(gameConfig.adaptiveLimitInitial,
+                gameConfig.adaptiveLimitMin, gameConfig.adaptiveLimitMax);
+        var path = URI.create(gameConfig.serverUrl).getRawPath();
+        this.basePath = path == null ? "" : path;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        var permit = limiter.acquire(queueKey(request));
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            if (!permit.cancel(false)) {
+                limiter.release(0, AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+
+        var started = System.nanoTime();
+        var outcome = AdaptiveConcurrencyLimiter.Outcome.IGNORED;
+        try {
+            var response = httpClient.send(request, responseBodyHandler);
+            outcome = outcome(response.statusCode());
+            return response;
+        } catch (IOException e) {
+            outcome = AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+            throw e;
+        } finally {
+            limiter.release(System.nanoTime() - started, outcome);
+        }
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        var result = new CompletableFuture<HttpResponse<T>>();
+        var permit = limiter.acquire(queueKey(request));
+        permit.thenRun(() -> {
+            var started = System.nanoTime();
+            CompletableFuture<HttpResponse<T>> sent;
+            try {
+                sent = httpClient.sendAsync(request, responseBodyHandler);
+            } catch (RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            sent.whenComplete((response, throwable) -> {
+                limiter.release(System.nanoTime() - started, outcome(response, throwable));
+                if (throwable == null) {
+                    result.complete(response);
+                } else {
+                    result.completeExceptionally(throwable);
+                }
+            });
+        });
+        // caller gave up before its turn came, queued permit is skipped
+        result.whenComplete((response, throwable) -> {
+            if (result.isCancelled()) {
+                permit.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private static AdaptiveConcurrencyLimiter.Outcome outcome(int statusCode) {
+        return RetryPolicy.isServerFailure(statusCode)
+                ? AdaptiveConcurrencyLimiter.Outcome.DROPPED
+                : AdaptiveConcurrencyLimiter.Outcome.SUCCESS;
+    }
+
+    private static AdaptiveConcurrencyLimiter.Outcome outcome(HttpResponse<?> response, Throwable throwable) {
+        if (response != null) {
+            return outcome(response.statusCode());
+        }
+        var cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof CancellationException
+                ? AdaptiveConcurrencyLimiter.Outcome.IGNORED
+                : AdaptiveConcurrencyLimiter.Outcome.DROPPED;
+    }
+
+    // "/game/start" gets key "game", all game starts share one queue
+    String queueKey(HttpRequest request) {
+        var path = request.uri().getRawPath();
+        if (path == null) {
+            return "";
+        }
+        var start = path.startsWith(basePath) ? basePath.length() : 0;
+        if (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        var end = path.indexOf('/', start);
+        return path.substring(start, end < 0 ? path.length() : end);
+    }
+
+    public int getLimit() {
+        return limiter.getLimit();
+    }
+
+    public int getInFlight() {
+        return limiter.getInFlight();
+    }
+
+    public int getQueued() {
+        return limiter.getWaiting();
+    }
+
+    @Override
+    public String statsSummary() {
+        var summary = String.format("concurrency limit: %d, in flight: %d, queued: %d, dropped: %d",
+                getLimit(), getInFlight(), getQueued(), limiter.getDroppedRequests());
+        var transport = httpClient.statsSummary();
+        return transport.isEmpty() ? summary : transport + ", " + summary;
+    }
+}
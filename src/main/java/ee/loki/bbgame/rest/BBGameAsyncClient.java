@@ -0,0 +1,146 @@
+package ee.loki.bbgame.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameConfig;
+import ee.loki.bbgame.gamemodel.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// non-blocking variant of BBGameClient, no thread is held while a request is in flight.
+// failures complete returned futures exceptionally with the same exceptions BBGameClient would throw
+public class BBGameAsyncClient extends GameClientBase {
+    private static final Logger logger = LoggerFactory.getLogger(BBGameAsyncClient.class);
+
+    public BBGameAsyncClient(BBGameConfig gameConfig, ObjectMapper objectMapper, IHttpClient httpClient) {
+        this(gameConfig, objectMapper, httpClient, new ShopCatalogCache(gameConfig.shopCacheTtlTurns),
+                new CircuitBreaker(gameConfig.circuitFailureThreshold, gameConfig.circuitOpenDuration));
+    }
+
+    public BBGameAsyncClient(BBGameConfig gameConfig, ObjectMapper objectMapper, IHttpClient httpClient,
+                        ShopCatalogCache shopCatalogCache, CircuitBreaker circuitBreaker) {
+        super(gameConfig, objectMapper, httpClient, shopCatalogCache, circuitBreaker);
+    }
+
+    // waits for a future returned by this client and rethrows its failure the way BBGameClient would throw it
+    public static <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private <T> CompletableFuture<T> runRequest(Endpoint<T> endpoint, String gameId, String arg) {
+        var request = buildRequest(endpoint, gameId, arg);
+        // body is collected into a byte array, parsing from a stream here would block http client's executor
+        return sendWithRetries(endpoint, request, 1)
+                .thenApply(response -> {
+                    try {
+                        return readResponse(response.statusCode(), response.body(), endpoint);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    // waits for circuit breaker and retry delays on a timer, no thread is blocked while waiting
+    private CompletableFuture<HttpResponse<byte[]>> sendWithRetries(Endpoint<?> endpoint, HttpRequest request, int attempt) {
+        var circuitDelay = circuitBreaker.permissionDelayNanos();
+        if (circuitDelay > 0) {
+            return later(circuitDelay, () -> sendWithRetries(endpoint, request, attempt));
+        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, throwable) -> {
+                    if (throwable != null) {
+                        var cause = throwable instanceof CompletionException && throwable.getCause() != null
+                                ? throwable.getCause()
+                                : throwable;
+                        var delay = retryDelayNanos(endpoint, request, attempt, cause);
+                        return delay < 0
+                                ? CompletableFuture.<HttpResponse<byte[]>>failedFuture(cause)
+                                : later(delay, () -> sendWithRetries(endpoint, request, attempt + 1));
+                    }
+                    var delay = retryDelayNanos(endpoint, request, attempt, response.statusCode(), response.headers());
+                    return delay < 0
+                            ? CompletableFuture.completedFuture(response)
+                            : later(delay, () -> sendWithRetries(endpoint, request, attempt + 1));
+                })
+                .thenCompose(next -> next);
+    }
+
+    private static <T> CompletableFuture<T> later(long delayNanos, Supplier<CompletableFuture<T>> action) {
+        return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS))
+                .thenCompose(ignored -> action.get());
+    }
+
+    public CompletableFuture<NewGame> startNewGame() {
+        return runRequest(startGameEndpoint, null, null)
+                .thenApply(result -> {
+                    logger.info("Started new game: {}", result.gameId());
+                    return result;
+                });
+    }
+
+    public CompletableFuture<Reputation> getReputation(String gameId) {
+        return runRequest(reputationEndpoint, gameId, null);
+    }
+
+    public CompletableFuture<ShopItem[]> getShopItems(String gameId) {
+        var cached = shopCatalogCache.get(gameId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return runRequest(shopEndpoint, gameId, null)
+                .thenApply(result -> {
+                    shopCatalogCache.put(gameId, result);
+                    return result;
+                });
+    }
+
+    public CompletableFuture<ShoppingResult> tryBuyItem(String gameId, String itemId) {
+        return runRequest(buyEndpoint, gameId, itemId)
+                .thenApply(result -> {
+                    if (result.shoppingSuccess()) {
+                        shopCatalogCache.invalidate(gameId);
+                    }
+                    return result;
+                });
+    }
+
+    public CompletableFuture<List<Task>> getTasks(String gameId) {
+        return runRequest(messageTasksEndpoint, gameId, null)
+                .thenApply(result -> {
+                    var tasks = new ArrayList<Task>(Arrays.asList(result));
+                    tasks.removeIf(Task::encryptionUnknown);
+                    return tasks;
+                });
+    }
+
+    // board without decoding, see MessageBoard
+    public CompletableFuture<Ad[]> getAds(String gameId) {
+        return runRequest(messagesEndpoint, gameId, null);
+    }
+
+    public CompletableFuture<TaskResult> tryResolveTask(String gameId, String adId) {
+        return runRequest(solveEndpoint, gameId, adId);
+    }
+}
@@ -7,94 +7,95 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.URLEncoder;
-import java.net.http.HttpRequest;
+import java.io.InputStream;
 import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-public class BBGameClient {
+public class BBGameClient extends GameClientBase {
     private static final Logger logger = LoggerFactory.getLogger(BBGameClient.class);
-    private final BBGameConfig gameConfig;
-
-    private final IHttpClient httpClient;
-    private final ObjectMapper objectMapper;
-
-    private enum Method {
-        GET,
-        POST,
-    }
 
     public BBGameClient(BBGameConfig gameConfig, ObjectMapper objectMapper, IHttpClient httpClient) {
-        this.gameConfig = gameConfig;
-        this.objectMapper = objectMapper;
-        this.httpClient = httpClient;
+        this(gameConfig, objectMapper, httpClient, new ShopCatalogCache(gameConfig.shopCacheTtlTurns),
+                new CircuitBreaker(gameConfig.circuitFailureThreshold, gameConfig.circuitOpenDuration));
     }
 
-    private <T> T runRequest(Method method, Class<T> valueType, String path, String... args) throws IOException, InterruptedException {
-        urlEncodeArgs(args);
-        var requestPath = String.format(path, (Object[]) args);
-        var requestBuilder = HttpRequest.newBuilder()
-                .uri(URI.create(gameConfig.serverUrl + requestPath))
-                .header("Accept", "application/json")
-                .timeout(gameConfig.readTimeout);
-
-        if (method == Method.GET) {
-            requestBuilder.GET();
-        } else {
-            requestBuilder.POST(HttpRequest.BodyPublishers.noBody());
-        }
-
-        var request = requestBuilder.build();
+    public BBGameClient(BBGameConfig gameConfig, ObjectMapper objectMapper, IHttpClient httpClient,
+                        ShopCatalogCache shopCatalogCache, CircuitBreaker circuitBreaker) {
+        super(gameConfig, objectMapper, httpClient, shopCatalogCache, circuitBreaker);
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        logger.debug("Received raw response {} from server: {}", response.statusCode(), response.body());
+    private <T> T runRequest(Endpoint<T> endpoint, String gameId, String arg) throws IOException, InterruptedException {
+        var request = buildRequest(endpoint, gameId, arg);
+        for (int attempt = 1; ; attempt++) {
+            long circuitDelay;
+            while ((circuitDelay = circuitBreaker.permissionDelayNanos()) > 0) {
+                Thread.sleep(Duration.ofNanos(circuitDelay));
+            }
 
-        if (response.statusCode() != 200) {
-            throw new RuntimeException("Response status code: " + response.statusCode() + "-" + response.body());
-        } else {
-            var result = objectMapper.readValue(response.body(), valueType);
-            logger.debug("Received response: {}", result);
-            return result;
-        }
-    }
+            HttpResponse<InputStream> response;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            } catch (IOException e) {
+                var delay = retryDelayNanos(endpoint, request, attempt, e);
+                if (delay < 0) {
+                    throw e;
+                }
+                Thread.sleep(Duration.ofNanos(delay));
+                continue;
+            }
 
-    private void urlEncodeArgs(String[] args) {
-        for (int i = 0; i < args.length; i++) {
-            if (args[i] != null) {
-                args[i] = URLEncoder.encode(args[i], StandardCharsets.UTF_8);
+            var delay = retryDelayNanos(endpoint, request, attempt, response.statusCode(), response.headers());
+            if (delay < 0) {
+                return readResponse(response, endpoint);
             }
+            response.body().close();
+            Thread.sleep(Duration.ofNanos(delay));
         }
     }
 
     public NewGame startNewGame() throws IOException, InterruptedException {
-        var result = runRequest(Method.POST, NewGame.class,"/game/start");
+        var result = runRequest(startGameEndpoint, null, null);
         logger.info("Started new game: {}", result.gameId());
         return result;
     }
 
     public Reputation getReputation(String gameId) throws IOException, InterruptedException {
-        return runRequest(Method.POST, Reputation.class, "/%s/investigate/reputation", gameId);
+        return runRequest(reputationEndpoint, gameId, null);
     }
 
     public ShopItem[] getShopItems(String gameId) throws IOException, InterruptedException {
-        return runRequest(Method.GET, ShopItem[].class, "/%s/shop", gameId);
+        var cached = shopCatalogCache.get(gameId);
+        if (cached != null) {
+            return cached;
+        }
+        var result = runRequest(shopEndpoint, gameId, null);
+        shopCatalogCache.put(gameId, result);
+        return result;
     }
 
     public ShoppingResult tryBuyItem(String gameId, String itemId) throws IOException, InterruptedException {
-        return runRequest(Method.POST, ShoppingResult.class, "/%s/shop/buy/%s", gameId, itemId);
+        var result = runRequest(buyEndpoint, gameId, itemId);
+        if (result.shoppingSuccess()) {
+            shopCatalogCache.invalidate(gameId);
+        }
+        return result;
     }
 
     public List<Task> getTasks(String gameId) throws IOException, InterruptedException {
-        var tasks= new ArrayList<Task>(Arrays.asList(runRequest(Method.GET, Task[].class, "/%s/messages", gameId)));
+        var tasks= new ArrayList<Task>(Arrays.asList(runRequest(messageTasksEndpoint, gameId, null)));
         tasks.removeIf(Task::encryptionUnknown);
         return tasks;
     }
 
+    // board without decoding, see MessageBoard
+    public Ad[] getAds(String gameId) throws IOException, InterruptedException {
+        return runRequest(messagesEndpoint, gameId, null);
+    }
+
     public TaskResult tryResolveTask(String gameId, String adId) throws IOException, InterruptedException {
-        return runRequest(Method.POST, TaskResult.class, "/%s/solve/%s", gameId, adId);
+        return runRequest(solveEndpoint, gameId, adId);
     }
 }
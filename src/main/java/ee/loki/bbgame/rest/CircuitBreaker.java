@@ -0,0 +1,93 @@
+package ee.loki.bbgame.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+// shared by all games talking to one server.
+// after failureThreshold consecutive failures circuit opens and every request waits openDuration instead of adding
+// load to a struggling server. Then one probe request is let through, its success closes circuit, failure opens it again
+// this class IS thread safe
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN,
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongAdder timesOpened = new LongAdder();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openUntil = 0;
+    private long probeStarted = 0;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    // returns 0 when request may be sent now, otherwise nanoseconds to wait before asking again
+    synchronized long permissionDelayNanos() {
+        var now = System.nanoTime();
+        switch (state) {
+            case OPEN -> {
+                if (now - openUntil < 0) {
+                    return openUntil - now;
+                }
+                state = State.HALF_OPEN;
+                probeStarted = now;
+                return 0;
+            }
+            case HALF_OPEN -> {
+                // probe that never reported back (caller interrupted) must not block everyone forever
+                if (now - probeStarted > openNanos) {
+                    probeStarted = now;
+                    return 0;
+                }
+                return Math.max(1, openNanos / 10);
+            }
+            default -> {
+                return 0;
+            }
+        }
+    }
+
+    // server answered, even with a client error status
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            logger.info("Circuit closed, server is responding again");
+            state = State.CLOSED;
+        }
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failureThreshold > 0 && consecutiveFailures >= failureThreshold)) {
+            logger.warn("Circuit opened after {} consecutive failures, pausing requests for {} ms",
+                    consecutiveFailures, Duration.ofNanos(openNanos).toMillis());
+            state = State.OPEN;
+            openUntil = System.nanoTime() + openNanos;
+            timesOpened.increment();
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    public long getTimesOpened() {
+        return timesOpened.sum();
+    }
+
+    public String statsSummary() {
+        return String.format("circuit state: %s, times opened: %d", getState(), getTimesOpened());
+    }
+}
@@ -0,0 +1,72 @@
+package ee.loki.bbgame.rest;
+
+import javax.net.ssl.*;
+import java.security.KeyManagementException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// HttpClient creates one SSLEngine for every new TLS connection, counting engines gives number of connections
+// opened. Everything else is delegated to the wrapped context
+class ConnectionCountingSslContext extends SSLContext {
+
+    ConnectionCountingSslContext(SSLContext delegate, LongAdder connectionsOpened) {
+        super(new CountingSpi(delegate, connectionsOpened), delegate.getProvider(), delegate.getProtocol());
+    }
+
+    private static class CountingSpi extends SSLContextSpi {
+        private final SSLContext delegate;
+        private final LongAdder connectionsOpened;
+
+        CountingSpi(SSLContext delegate, LongAdder connectionsOpened) {
+            this.delegate = delegate;
+            this.connectionsOpened = connectionsOpened;
+        }
+
+        @Override
+        protected void engineInit(KeyManager[] km, TrustManager[] tm, SecureRandom sr) throws KeyManagementException {
+            delegate.init(km, tm, sr);
+        }
+
+        @Override
+        protected SSLSocketFactory engineGetSocketFactory() {
+            return delegate.getSocketFactory();
+        }
+
+        @Override
+        protected SSLServerSocketFactory engineGetServerSocketFactory() {
+            return delegate.getServerSocketFactory();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine() {
+            connectionsOpened.increment();
+            return delegate.createSSLEngine();
+        }
+
+        @Override
+        protected SSLEngine engineCreateSSLEngine(String host, int port) {
+            connectionsOpened.increment();
+            return delegate.createSSLEngine(host, port);
+        }
+
+        @Override
+        protected SSLSessionContext engineGetServerSessionContext() {
+            return delegate.getServerSessionContext();
+        }
+
+        @Override
+        protected SSLSessionContext engineGetClientSessionContext() {
+            return delegate.getClientSessionContext();
+        }
+
+        @Override
+        protected SSLParameters engineGetDefaultSSLParameters() {
+            return delegate.getDefaultSSLParameters();
+        }
+
+        @Override
+        protected SSLParameters engineGetSupportedSSLParameters() {
+            return delegate.getSupportedSSLParameters();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ee.loki.bbgame.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+// precompiled description of one server api call.
+// request url is base + path + encoded argument, where base is server url or per game url "<server>/<gameId>".
+// idempotent endpoints can be retried on any failure, see RetryPolicy
+final class Endpoint<T> {
+    enum Method {
+        GET,
+        POST,
+    }
+
+    final Method method;
+    final boolean idempotent;
+    final boolean perGame;
+    final String path;
+    final ObjectReader reader;
+
+    private Endpoint(Method method, boolean perGame, String path, ObjectReader reader) {
+        this.method = method;
+        this.idempotent = method == Method.GET;
+        this.perGame = perGame;
+        this.path = path;
+        this.reader = reader;
+    }
+
+    static <T> Endpoint<T> global(ObjectMapper objectMapper, Method method, String path, Class<T> valueType) {
+        return new Endpoint<>(method, false, path, objectMapper.readerFor(valueType));
+    }
+
+    static <T> Endpoint<T> perGame(ObjectMapper objectMapper, Method method, String path, Class<T> valueType) {
+        return new Endpoint<>(method, true, path, objectMapper.readerFor(valueType));
+    }
+
+    String url(String base, String arg) {
+        if (arg == null) {
+            return base + path;
+        }
+        var encodedArg = encodePathArg(arg);
+        return new StringBuilder(base.length() + path.length() + encodedArg.length())
+                .append(base)
+                .append(path)
+                .append(encodedArg)
+                .toString();
+    }
+
+    // same result as URLEncoder, ids consisting of characters URLEncoder keeps as is are returned without copying
+    static String encodePathArg(String arg) {
+        for (int i = 0; i < arg.length(); i++) {
+            var c = arg.charAt(i);
+            var unchanged = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '*';
+            if (!unchanged) {
+                return URLEncoder.encode(arg, StandardCharsets.UTF_8);
+            }
+        }
+        return arg;
+    }
+}
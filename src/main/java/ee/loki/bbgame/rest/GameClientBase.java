@@ -0,0 +1,157 @@
+package ee.loki.bbgame.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameConfig;
+import ee.loki.bbgame.gamemodel.*;
+import ee.loki.bbgame.rest.Endpoint.Method;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// request building and response handling shared by blocking and non-blocking game clients
+abstract class GameClientBase {
+    private static final Logger logger = LoggerFactory.getLogger(GameClientBase.class);
+
+    protected final BBGameConfig gameConfig;
+    protected final IHttpClient httpClient;
+    protected final ObjectMapper objectMapper;
+    protected final ShopCatalogCache shopCatalogCache;
+    protected final CircuitBreaker circuitBreaker;
+    protected final RetryPolicy retryPolicy;
+
+    protected final Endpoint<NewGame> startGameEndpoint;
+    protected final Endpoint<Reputation> reputationEndpoint;
+    protected final Endpoint<ShopItem[]> shopEndpoint;
+    protected final Endpoint<ShoppingResult> buyEndpoint;
+    protected final Endpoint<Ad[]> messagesEndpoint;
+    protected final Endpoint<Task[]> messageTasksEndpoint;
+    protected final Endpoint<TaskResult> solveEndpoint;
+
+    private final HttpRequest.Builder requestTemplate;
+    // base url and number of requests built for every game in progress
+    private record GameRequests(String baseUrl, LongAdder count) {}
+    private final Map<String, GameRequests> games = new ConcurrentHashMap<>();
+
+    protected GameClientBase(BBGameConfig gameConfig, ObjectMapper objectMapper, IHttpClient httpClient,
+                             ShopCatalogCache shopCatalogCache, CircuitBreaker circuitBreaker) {
+        this.gameConfig = gameConfig;
+        this.objectMapper = objectMapper;
+        this.httpClient = httpClient;
+        this.shopCatalogCache = shopCatalogCache;
+        this.circuitBreaker = circuitBreaker;
+        this.retryPolicy = new RetryPolicy(gameConfig.retryMaxAttempts, gameConfig.retryBaseDelay, gameConfig.retryMaxDelay);
+
+        startGameEndpoint = Endpoint.global(objectMapper, Method.POST, "/game/start", NewGame.class);
+        reputationEndpoint = Endpoint.perGame(objectMapper, Method.POST, "/investigate/reputation", Reputation.class);
+        shopEndpoint = Endpoint.perGame(objectMapper, Method.GET, "/shop", ShopItem[].class);
+        buyEndpoint = Endpoint.perGame(objectMapper, Method.POST, "/shop/buy/", ShoppingResult.class);
+        messagesEndpoint = Endpoint.perGame(objectMapper, Method.GET, "/messages", Ad[].class);
+        messageTasksEndpoint = Endpoint.perGame(objectMapper, Method.GET, "/messages", Task[].class);
+        solveEndpoint = Endpoint.perGame(objectMapper, Method.POST, "/solve/", TaskResult.class);
+
+        requestTemplate = HttpRequest.newBuilder()
+                .header("Accept", "application/json")
+                .timeout(gameConfig.readTimeout);
+    }
+
+    // releases per game state, call when game has ended
+    public void forgetGame(String gameId) {
+        shopCatalogCache.invalidate(gameId);
+        games.remove(gameId);
+    }
+
+    // requests made for game since it was started or forgotten, retries are not counted
+    public long getRequestCount(String gameId) {
+        var requests = games.get(gameId);
+        return requests == null ? 0 : requests.count().sum();
+    }
+
+    private GameRequests gameRequests(String gameId) {
+        return games.computeIfAbsent(gameId,
+                id -> new GameRequests(gameConfig.serverUrl + "/" + Endpoint.encodePathArg(id), new LongAdder()));
+    }
+
+    protected HttpRequest buildRequest(Endpoint<?> endpoint, String gameId, String arg) {
+        String base;
+        if (endpoint.perGame) {
+            var requests = gameRequests(gameId);
+            requests.count().increment();
+            base = requests.baseUrl();
+        } else {
+            base = gameConfig.serverUrl;
+        }
+        var requestBuilder = requestTemplate.copy()
+                .uri(URI.create(endpoint.url(base, arg)));
+
+        if (endpoint.method == Method.GET) {
+            requestBuilder.GET();
+        } else {
+            requestBuilder.POST(HttpRequest.BodyPublishers.noBody());
+        }
+
+        return requestBuilder.build();
+    }
+
+    // records response in circuit breaker, returns delay before retry or -1 when response goes to caller
+    protected long retryDelayNanos(Endpoint<?> endpoint, HttpRequest request, int attempt, int statusCode, HttpHeaders headers) {
+        if (RetryPolicy.isServerFailure(statusCode)) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+        var delay = retryPolicy.retryDelayNanos(endpoint.idempotent, attempt, statusCode, headers);
+        if (delay >= 0) {
+            logger.warn("Request {} {} returned {}, retrying in {} ms", request.method(), request.uri(), statusCode,
+                    TimeUnit.NANOSECONDS.toMillis(delay));
+        }
+        return delay;
+    }
+
+    // records failure in circuit breaker, returns delay before retry or -1 when failure goes to caller
+    protected long retryDelayNanos(Endpoint<?> endpoint, HttpRequest request, int attempt, Throwable throwable) {
+        if (throwable instanceof IOException) {
+            circuitBreaker.onFailure();
+        }
+        var delay = retryPolicy.retryDelayNanos(endpoint.idempotent, attempt, throwable);
+        if (delay >= 0) {
+            logger.warn("Request {} {} failed with {}, retrying in {} ms", request.method(), request.uri(), throwable.toString(),
+                    TimeUnit.NANOSECONDS.toMillis(delay));
+        }
+        return delay;
+    }
+
+    // response body is parsed straight from the byte stream, a String copy is built only for debug log and errors
+    protected <T> T readResponse(HttpResponse<InputStream> response, Endpoint<T> endpoint) throws IOException {
+        try (var body = response.body()) {
+            if (response.statusCode() != 200 || logger.isDebugEnabled()) {
+                return readResponse(response.statusCode(), body.readAllBytes(), endpoint);
+            }
+            return endpoint.reader.readValue(body);
+        }
+    }
+
+    protected <T> T readResponse(int statusCode, byte[] body, Endpoint<T> endpoint) throws IOException {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Received raw response {} from server: {}", statusCode, new String(body, StandardCharsets.UTF_8));
+        }
+
+        if (statusCode != 200) {
+            throw new RuntimeException("Response status code: " + statusCode + "-" + new String(body, StandardCharsets.UTF_8));
+        } else {
+            T result = endpoint.reader.readValue(body);
+            logger.debug("Received response: {}", result);
+            return result;
+        }
+    }
+}
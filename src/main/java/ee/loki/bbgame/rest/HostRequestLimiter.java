@@ -0,0 +1,56 @@
+package ee.loki.bbgame.rest;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+// limits number of requests in flight to one host.
+// permits are handed out as futures so waiting requests do not hold a thread, waiters are served in FIFO order
+// this class IS thread safe
+class HostRequestLimiter {
+    private final int limit;
+    private final Queue<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+    private int inFlight = 0;
+
+    HostRequestLimiter(int limit) {
+        this.limit = limit;
+    }
+
+    // returned future completes when permit is granted, caller must call release() exactly once after that
+    CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            if (inFlight < limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            var permit = new CompletableFuture<Void>();
+            waiting.add(permit);
+            return permit;
+        }
+    }
+
+    void release() {
+        while (true) {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            // permit passes directly to next waiter, unless that waiter has given up already
+            if (next.complete(null)) {
+                return;
+            }
+        }
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized int getWaiting() {
+        return waiting.size();
+    }
+}
@@ -1,24 +1,167 @@
 package ee.loki.bbgame.rest;
 
 import ee.loki.bbgame.BBGameConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 
 public class HttpClientWrapper implements IHttpClient {
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientWrapper.class);
+
     private final HttpClient httpClient;
+    // null when http client uses its own executor
+    private final ExecutorService executor;
+    private final int maxRequestsPerHost;
+    private final Map<String, HostRequestLimiter> hostLimiters = new ConcurrentHashMap<>();
+    private final LongAdder requestsSent = new LongAdder();
+    // requests over https, only those can be compared with TLS connections opened
+    private final LongAdder tlsRequestsSent = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
 
     public HttpClientWrapper(BBGameConfig gameConfig) {
-        httpClient =HttpClient.newBuilder()
-                .version(HttpClient.Version.HTTP_1_1)
-                .connectTimeout(gameConfig.connectTimeout)
-                .build();
+        maxRequestsPerHost = gameConfig.maxRequestsPerHost;
+
+        var builder = HttpClient.newBuilder()
+                .version(gameConfig.httpVersion)
+                .connectTimeout(gameConfig.connectTimeout);
+        try {
+            builder.sslContext(new ConnectionCountingSslContext(SSLContext.getDefault(), connectionsOpened));
+        } catch (NoSuchAlgorithmException e) {
+            logger.error("Failed to get default SSL context, connections are not counted", e);
+        }
+        executor = createExecutor(gameConfig);
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        httpClient = builder.build();
+    }
+
+    // connection pool settings are JVM wide system properties read once when first HttpClient is created, so this
+    // changes every HttpClient of the process and has effect only when called at startup before any is created.
+    // values given on command line take precedence
+    public static void configureConnectionPool(BBGameConfig gameConfig) {
+        var keepAliveSec = String.valueOf(gameConfig.keepAliveTimeout.toSeconds());
+        setIfMissing("jdk.httpclient.keepalive.timeout", keepAliveSec);
+        setIfMissing("jdk.httpclient.keepalive.timeout.h2", keepAliveSec);
+        setIfMissing("jdk.httpclient.connectionPoolSize", String.valueOf(gameConfig.connectionPoolSize));
+    }
+
+    private static void setIfMissing(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    private static ExecutorService createExecutor(BBGameConfig gameConfig) {
+        return switch (gameConfig.httpExecutor) {
+            case "virtual" -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-", 0).factory());
+            case "fixed" -> Executors.newFixedThreadPool(gameConfig.httpExecutorThreads,
+                    Thread.ofPlatform().name("http-", 0).daemon().factory());
+            case "default" -> null;
+            default -> {
+                logger.error("Unknown http executor '{}', using default", gameConfig.httpExecutor);
+                yield null;
+            }
+        };
     }
 
     public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
             throws IOException, InterruptedException {
-        return httpClient.send(request, responseBodyHandler);
+        var limiter = hostLimiter(request);
+        if (limiter == null) {
+            countRequest(request);
+            return httpClient.send(request, responseBodyHandler);
+        }
+
+        var permit = limiter.acquire();
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            if (!permit.cancel(false)) {
+                limiter.release();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            countRequest(request);
+            return httpClient.send(request, responseBodyHandler);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        var limiter = hostLimiter(request);
+        if (limiter == null) {
+            countRequest(request);
+            return httpClient.sendAsync(request, responseBodyHandler);
+        }
+
+        return limiter.acquire()
+                .thenCompose(permit -> {
+                    countRequest(request);
+                    return httpClient.sendAsync(request, responseBodyHandler);
+                })
+                .whenComplete((response, throwable) -> limiter.release());
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    private void countRequest(HttpRequest request) {
+        requestsSent.increment();
+        if ("https".equalsIgnoreCase(request.uri().getScheme())) {
+            tlsRequestsSent.increment();
+        }
+    }
+
+    private HostRequestLimiter hostLimiter(HttpRequest request) {
+        if (maxRequestsPerHost <= 0) {
+            return null;
+        }
+        var uri = request.uri();
+        return hostLimiters.computeIfAbsent(uri.getHost() + ":" + uri.getPort(),
+                host -> new HostRequestLimiter(maxRequestsPerHost));
+    }
+
+    public long getRequestsSent() {
+        return requestsSent.sum();
+    }
+
+    // only TLS connections are counted, for plain http this stays 0
+    public long getConnectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    public long getTlsRequestsSent() {
+        return tlsRequestsSent.sum();
+    }
+
+    // https requests sent over a connection opened before them, plain http connections are not counted
+    public long getTlsConnectionsReused() {
+        return Math.max(0, getTlsRequestsSent() - getConnectionsOpened());
+    }
+
+    @Override
+    public String statsSummary() {
+        return String.format("http requests: %d, https requests: %d, TLS connections opened: %d, " +
+                        "https requests on reused TLS connection: %d",
+                getRequestsSent(), getTlsRequestsSent(), getConnectionsOpened(), getTlsConnectionsReused());
     }
 }
@@ -3,8 +3,21 @@ package ee.loki.bbgame.rest;
 import java.io.IOException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
 
 // httpclient is tricky to test, this interface is for mocking httpclient
-public interface IHttpClient {
+public interface IHttpClient extends AutoCloseable {
     <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) throws IOException, InterruptedException;
+
+    <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler);
+
+    // one line of transport statistics for reports
+    default String statsSummary() {
+        return "";
+    }
+
+    // releases threads and connections of client, waits for requests in flight
+    @Override
+    default void close() {
+    }
 }
@@ -0,0 +1,77 @@
+package ee.loki.bbgame.rest;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// decides if failed request can be sent again and how long to wait before that.
+// idempotent requests are retried on any server error or io failure. State changing requests are retried only when
+// server could not have processed them: 429/503 responses and failures to connect
+class RetryPolicy {
+    private final int maxAttempts;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+
+    RetryPolicy(int maxAttempts, Duration baseDelay, Duration maxDelay) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+    }
+
+    // server is struggling, these responses count as failures for circuit breaker
+    static boolean isServerFailure(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    // returns delay before next attempt, or -1 when response must be returned to caller as is
+    long retryDelayNanos(boolean idempotent, int attempt, int statusCode, HttpHeaders headers) {
+        if (attempt >= maxAttempts || !isServerFailure(statusCode)) {
+            return -1;
+        }
+        if (!idempotent && statusCode != 429 && statusCode != 503) {
+            return -1;
+        }
+        // server asking to wait longer than retries may wait gets its response back instead of parking the game thread
+        var retryAfter = retryAfterNanos(headers);
+        if (retryAfter > maxDelayNanos) {
+            return -1;
+        }
+        return Math.max(backoffNanos(attempt), retryAfter);
+    }
+
+    // returns delay before next attempt, or -1 when exception must be passed to caller
+    long retryDelayNanos(boolean idempotent, int attempt, Throwable throwable) {
+        if (attempt >= maxAttempts || !(throwable instanceof IOException)) {
+            return -1;
+        }
+        if (!idempotent && !(throwable instanceof ConnectException) && !(throwable instanceof HttpConnectTimeoutException)) {
+            return -1;
+        }
+        return backoffNanos(attempt);
+    }
+
+    // exponential backoff with full jitter, so games failing together do not retry together
+    private long backoffNanos(int attempt) {
+        var ceiling = Math.min(maxDelayNanos, baseDelayNanos << Math.min(attempt - 1, 30));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    // only delay-seconds form of Retry-After is supported, http-date is ignored
+    private static long retryAfterNanos(HttpHeaders headers) {
+        if (headers == null) {
+            return 0;
+        }
+        return headers.firstValue("Retry-After")
+                .map(value -> {
+                    try {
+                        return Duration.ofSeconds(Long.parseLong(value.trim())).toNanos();
+                    } catch (NumberFormatException e) {
+                        return 0L;
+                    }
+                })
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,61 @@
+package ee.loki.bbgame.rest;
+
+import ee.loki.bbgame.gamemodel.ShopItem;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// shop items per game. Catalog of a game rarely changes, so it is fetched again only after ttlTurns lookups
+// or after a successful purchase. ttlTurns 0 disables caching
+// this class IS thread safe
+public class ShopCatalogCache {
+    private record Entry(ShopItem[] items, AtomicInteger lookupsLeft) {}
+
+    private final int ttlTurns;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ShopCatalogCache(int ttlTurns) {
+        this.ttlTurns = ttlTurns;
+    }
+
+    // returns null when items have to be fetched from server
+    ShopItem[] get(String gameId) {
+        var entry = entries.get(gameId);
+        if (entry != null && entry.lookupsLeft().getAndDecrement() > 0) {
+            hits.increment();
+            return entry.items().clone();
+        }
+        if (entry != null) {
+            entries.remove(gameId, entry);
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(String gameId, ShopItem[] items) {
+        if (ttlTurns > 0) {
+            entries.put(gameId, new Entry(items.clone(), new AtomicInteger(ttlTurns)));
+        }
+    }
+
+    void invalidate(String gameId) {
+        entries.remove(gameId);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public String statsSummary() {
+        return String.format("shop catalog cache hits: %d, misses: %d, games cached: %d",
+                getHits(), getMisses(), entries.size());
+    }
+}
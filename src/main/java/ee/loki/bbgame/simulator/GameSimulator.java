@@ -0,0 +1,172 @@
+package ee.loki.bbgame.simulator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.gamemodel.ShopItem;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// in-process replacement of game server api for load testing without network.
+// handle() takes request method and path relative to api root and returns status and json body, transports
+// (SimulatorHttpClient, SimulatorHttpServer) only add latency and wrap result.
+// games are numbered in start order and game n always gets the same random sequence for the same seed
+// this class IS thread safe
+public class GameSimulator {
+    public record Response(int statusCode, byte[] body) {}
+
+    static final ShopItem[] shopItems = {
+            new ShopItem("hpot", "Healing potion", 50),
+            new ShopItem("cs", "Claw Sharpening", 100),
+            new ShopItem("gas", "Gasoline", 100),
+            new ShopItem("wax", "Copper Plating", 100),
+            new ShopItem("tricks", "Book of Tricks", 100),
+            new ShopItem("wingpot", "Potion of Stronger Wings", 100),
+            new ShopItem("ch", "Claw Honing", 300),
+            new ShopItem("rf", "Rocket Fuel", 300),
+            new ShopItem("iron", "Iron Plating", 300),
+            new ShopItem("mtrix", "Book of Megatricks", 300),
+            new ShopItem("wingpotmax", "Potion of Awesome Wings", 300),
+    };
+
+    // games nobody has touched for this long are dropped, clients that reach target score never tell server they quit
+    private static final long idleGameNanos = Duration.ofMinutes(10).toNanos();
+    private static final int evictionInterval = 1024;
+
+    private final long seed;
+    private final ObjectMapper objectMapper;
+    private final Map<String, SimulatedGame> games = new ConcurrentHashMap<>();
+    private final AtomicLong gamesStarted = new AtomicLong();
+    private final AtomicLong requestsHandled = new AtomicLong();
+
+    public GameSimulator(long seed, ObjectMapper objectMapper) {
+        this.seed = seed;
+        this.objectMapper = objectMapper;
+    }
+
+    // path is relative to api root, e.g. "/game/start" or "/{gameId}/solve/{adId}"
+    public Response handle(String method, String path) {
+        requestsHandled.incrementAndGet();
+        var segments = path.startsWith("/") ? path.substring(1).split("/") : path.split("/");
+        if (segments.length == 2 && segments[0].equals("game") && segments[1].equals("start")) {
+            return post(method) ? startGame() : notFound(path);
+        }
+        if (segments.length < 2) {
+            return notFound(path);
+        }
+
+        var game = games.get(decode(segments[0]));
+        if (game == null) {
+            return error(410, "No game with this id, or game is over");
+        }
+        synchronized (game) {
+            if (game.isOver()) {
+                return error(410, "Game over");
+            }
+            game.lastAccessNanos = System.nanoTime();
+            var response = handle(game, method, segments);
+            if (response == null) {
+                return notFound(path);
+            }
+            if (game.isOver()) {
+                games.remove(game.gameId);
+            }
+            return response;
+        }
+    }
+
+    private Response handle(SimulatedGame game, String method, String[] segments) {
+        var action = segments[1];
+        if (segments.length == 2 && action.equals("messages") && method.equals("GET")) {
+            return ok(game.ads());
+        }
+        if (segments.length == 2 && action.equals("shop") && method.equals("GET")) {
+            return ok(shopItems);
+        }
+        if (segments.length == 3 && action.equals("investigate") && segments[2].equals("reputation") && post(method)) {
+            return ok(game.reputation());
+        }
+        if (segments.length == 3 && action.equals("solve") && post(method)) {
+            var result = game.solve(decode(segments[2]));
+            return result == null ? error(400, "No ad by this ID exists") : ok(result);
+        }
+        if (segments.length == 4 && action.equals("shop") && segments[2].equals("buy") && post(method)) {
+            var result = game.buy(decode(segments[3]));
+            return result == null ? error(400, "No item by this ID exists") : ok(result);
+        }
+        return null;
+    }
+
+    private Response startGame() {
+        var gameNumber = gamesStarted.incrementAndGet();
+        if (gameNumber % evictionInterval == 0) {
+            evictIdleGames();
+        }
+        var game = new SimulatedGame("sim" + gameNumber, gameSeed(gameNumber));
+        game.lastAccessNanos = System.nanoTime();
+        games.put(game.gameId, game);
+        return ok(game.toNewGame());
+    }
+
+    // spreads game numbers over whole seed space so neighbouring games do not get correlated sequences
+    private long gameSeed(long gameNumber) {
+        var z = seed + gameNumber * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void evictIdleGames() {
+        var now = System.nanoTime();
+        games.values().removeIf(game -> now - game.lastAccessNanos > idleGameNanos);
+    }
+
+    private static boolean post(String method) {
+        return method.equals("POST");
+    }
+
+    private static String decode(String pathArg) {
+        return pathArg.indexOf('%') < 0 && pathArg.indexOf('+') < 0 ? pathArg : URLDecoder.decode(pathArg, StandardCharsets.UTF_8);
+    }
+
+    private Response ok(Object value) {
+        try {
+            return new Response(200, objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Response error(int statusCode, String message) {
+        try {
+            return new Response(statusCode, objectMapper.writeValueAsBytes(Map.of("error", message)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Response notFound(String path) {
+        return error(404, "Unknown request " + path);
+    }
+
+    public int getActiveGames() {
+        return games.size();
+    }
+
+    public long getGamesStarted() {
+        return gamesStarted.get();
+    }
+
+    public long getRequestsHandled() {
+        return requestsHandled.get();
+    }
+
+    public String statsSummary() {
+        return String.format("simulator games started: %d, active: %d, requests: %d",
+                getGamesStarted(), getActiveGames(), getRequestsHandled());
+    }
+}
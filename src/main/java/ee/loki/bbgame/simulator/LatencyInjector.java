@@ -0,0 +1,28 @@
+package ee.loki.bbgame.simulator;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// simulated network and server latency: base latency plus uniformly distributed jitter.
+// jitter does not use game seed, games play out the same no matter how requests are delayed
+// this class IS thread safe
+class LatencyInjector {
+    private final long latencyNanos;
+    private final long jitterNanos;
+
+    LatencyInjector(Duration latency, Duration jitter) {
+        this.latencyNanos = Math.max(0, latency.toNanos());
+        this.jitterNanos = Math.max(0, jitter.toNanos());
+    }
+
+    long nextDelayNanos() {
+        return jitterNanos == 0 ? latencyNanos : latencyNanos + ThreadLocalRandom.current().nextLong(jitterNanos + 1);
+    }
+
+    void sleep() throws InterruptedException {
+        var delay = nextDelayNanos();
+        if (delay > 0) {
+            Thread.sleep(Duration.ofNanos(delay));
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package ee.loki.bbgame.simulator;
+
+import ee.loki.bbgame.gamemodel.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// state of one simulated game. Every game has its own random generator, so game plays out the same for the same
+// seed and sequence of requests, no matter how many other games run at the same time
+// this class is NOT thread safe, GameSimulator synchronizes on the game
+class SimulatedGame {
+    static final String[] probabilities = {
+            "Piece of cake", "Walk in the park", "Sure thing", "Quite likely", "Hmmm....", "Gamble",
+            "Risky", "Rather detrimental", "Playing with fire", "Suicide mission", "Impossible",
+    };
+    static final double[] successRates = {0.95, 0.9, 0.85, 0.75, 0.6, 0.5, 0.4, 0.3, 0.2, 0.1, 0.05};
+    static final int boardSize = 10;
+    static final int startingLives = 3;
+
+    private static final String[] actions = {
+            "Help", "Escort", "Investigate", "Steal a chicken from", "Kill", "Rescue", "Create an advertisement campaign for",
+            "Infiltrate the gang of", "Negotiate with",
+    };
+    private static final String[] names = {
+            "Hagar Eymor", "Oliver Hunter", "Cassandra Tansy", "Dagny Lambert", "Quinn Neville", "Raphael Sparrow",
+    };
+    private static final String[] places = {
+            "their bucket based business", "the village of Thornhollow", "a cart of bricks", "the royal library",
+            "the dragon's lair", "a swamp full of frogs",
+    };
+
+    private record SimulatedAd(String adId, String message, int reward, int expiresAtTurn, int probabilityIndex,
+                               int encrypted) {}
+
+    final String gameId;
+    private final SplittableRandom random;
+    private final List<SimulatedAd> board = new ArrayList<>(boardSize * 2);
+
+    int lives = startingLives;
+    int gold = 0;
+    int level = 0;
+    int score = 0;
+    int turn = 0;
+    double people = 0;
+    double state = 0;
+    double underworld = 0;
+    long lastAccessNanos;
+
+    SimulatedGame(String gameId, long seed) {
+        this.gameId = gameId;
+        this.random = new SplittableRandom(seed);
+        fillBoard();
+    }
+
+    boolean isOver() {
+        return lives <= 0;
+    }
+
+    NewGame toNewGame() {
+        return new NewGame(gameId, lives, gold, level, score, 0, turn);
+    }
+
+    Ad[] ads() {
+        var result = new Ad[board.size()];
+        for (int i = 0; i < result.length; i++) {
+            var ad = board.get(i);
+            var probability = probabilities[ad.probabilityIndex()];
+            var expiresIn = ad.expiresAtTurn() - turn;
+            result[i] = switch (ad.encrypted()) {
+                case 1 -> new Ad(base64(ad.adId()), base64(ad.message()), ad.reward(), expiresIn, base64(probability), 1);
+                case 2 -> new Ad(rot13(ad.adId()), rot13(ad.message()), ad.reward(), expiresIn, rot13(probability), 2);
+                default -> new Ad(ad.adId(), ad.message(), ad.reward(), expiresIn, probability, 0);
+            };
+        }
+        return result;
+    }
+
+    // returns null when there is no such ad on board
+    TaskResult solve(String adId) {
+        SimulatedAd ad = null;
+        for (int i = 0; i < board.size(); i++) {
+            if (board.get(i).adId().equals(adId)) {
+                ad = board.remove(i);
+                break;
+            }
+        }
+        if (ad == null) {
+            return null;
+        }
+
+        var chance = Math.min(0.98, successRates[ad.probabilityIndex()] + 0.02 * level);
+        var success = random.nextDouble() < chance;
+        String message;
+        if (success) {
+            gold += ad.reward();
+            score += ad.reward();
+            people += 0.5;
+            message = "You successfully solved the mission!";
+        } else {
+            lives--;
+            underworld += 0.5;
+            message = "You have failed the mission and lost one life.";
+        }
+        nextTurn();
+        return new TaskResult(success, lives, gold, score, 0, turn, message);
+    }
+
+    // returns null when there is no such item in shop
+    ShoppingResult buy(String itemId) {
+        ShopItem item = null;
+        for (var shopItem : GameSimulator.shopItems) {
+            if (shopItem.id().equals(itemId)) {
+                item = shopItem;
+                break;
+            }
+        }
+        if (item == null) {
+            return null;
+        }
+        if (gold < item.cost()) {
+            return new ShoppingResult(false, gold, lives, level, turn);
+        }
+        gold -= item.cost();
+        if (item.id().equals("hpot")) {
+            lives++;
+        } else {
+            level++;
+        }
+        nextTurn();
+        return new ShoppingResult(true, gold, lives, level, turn);
+    }
+
+    Reputation reputation() {
+        state = people - underworld;
+        return new Reputation(people, state, underworld);
+    }
+
+    private void nextTurn() {
+        turn++;
+        board.removeIf(ad -> ad.expiresAtTurn() <= turn);
+        fillBoard();
+    }
+
+    private void fillBoard() {
+        while (board.size() < boardSize) {
+            board.add(newAd());
+        }
+    }
+
+    private SimulatedAd newAd() {
+        var probabilityIndex = random.nextInt(probabilities.length);
+        // riskier tasks pay more
+        var reward = (5 + random.nextInt(20)) * (1 + probabilityIndex);
+        var message = actions[random.nextInt(actions.length)] + " " + names[random.nextInt(names.length)]
+                + " with " + places[random.nextInt(places.length)];
+        var roll = random.nextInt(20);
+        var encrypted = roll < 2 ? 1 : roll < 3 ? 2 : 0;
+        return new SimulatedAd(randomId(), message, reward, turn + 1 + random.nextInt(7), probabilityIndex, encrypted);
+    }
+
+    private String randomId() {
+        var chars = new char[8];
+        for (int i = 0; i < chars.length; i++) {
+            var n = random.nextInt(62);
+            chars[i] = (char) (n < 10 ? '0' + n : n < 36 ? 'a' + n - 10 : 'A' + n - 36);
+        }
+        return new String(chars);
+    }
+
+    private static String base64(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String rot13(String value) {
+        var chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            var c = chars[i];
+            if (c >= 'a' && c <= 'z') {
+                chars[i] = (char) ('a' + (c - 'a' + 13) % 26);
+            } else if (c >= 'A' && c <= 'Z') {
+                chars[i] = (char) ('A' + (c - 'A' + 13) % 26);
+            }
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,96 @@
+package ee.loki.bbgame.simulator;
+
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+
+// response of simulator, body is run through the body handler the same way HttpClient does, so any handler type works.
+// also used by test and benchmark http clients that answer with canned bodies
+public record SimulatedHttpResponse<T>(HttpRequest request, int statusCode, HttpHeaders headers, T body)
+        implements HttpResponse<T> {
+    private static final HttpHeaders jsonHeaders =
+            HttpHeaders.of(Map.of("Content-Type", List.of("application/json")), (name, value) -> true);
+
+    static <T> SimulatedHttpResponse<T> of(HttpRequest request, GameSimulator.Response response,
+                                           BodyHandler<T> responseBodyHandler) throws IOException {
+        return of(request, response.statusCode(), jsonHeaders, response.body(), responseBodyHandler);
+    }
+
+    public static <T> SimulatedHttpResponse<T> of(HttpRequest request, int statusCode, HttpHeaders headers, byte[] body,
+                                                  BodyHandler<T> responseBodyHandler) throws IOException {
+        var subscriber = responseBodyHandler.apply(new ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return headers;
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        });
+        subscriber.onSubscribe(new Flow.Subscription() {
+            private boolean done = false;
+
+            @Override
+            public void request(long n) {
+                if (!done) {
+                    done = true;
+                    if (body.length > 0) {
+                        subscriber.onNext(List.of(ByteBuffer.wrap(body)));
+                    }
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                done = true;
+            }
+        });
+        try {
+            return new SimulatedHttpResponse<>(request, statusCode, headers,
+                    subscriber.getBody().toCompletableFuture().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public Optional<HttpResponse<T>> previousResponse() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+        return Optional.empty();
+    }
+
+    @Override
+    public URI uri() {
+        return request.uri();
+    }
+
+    @Override
+    public HttpClient.Version version() {
+        return HttpClient.Version.HTTP_1_1;
+    }
+}
@@ -0,0 +1,67 @@
+package ee.loki.bbgame.simulator;
+
+import ee.loki.bbgame.BBGameConfig;
+import ee.loki.bbgame.rest.IHttpClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+// http client answering from GameSimulator instead of network, request urls must start with config.serverUrl.
+// sync requests sleep for injected latency, async ones complete after it on a delayed executor
+// this class IS thread safe
+public class SimulatorHttpClient implements IHttpClient {
+    private final GameSimulator simulator;
+    private final LatencyInjector latency;
+    private final String basePath;
+
+    public SimulatorHttpClient(GameSimulator simulator, BBGameConfig gameConfig) {
+        this.simulator = simulator;
+        this.latency = new LatencyInjector(gameConfig.simulatorLatency, gameConfig.simulatorLatencyJitter);
+        var path = URI.create(gameConfig.serverUrl).getRawPath();
+        this.basePath = path == null ? "" : path;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        latency.sleep();
+        return respond(request, responseBodyHandler);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        var delay = latency.nextDelayNanos();
+        Executor executor = delay > 0
+                ? CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS)
+                : Runnable::run;
+        var result = new CompletableFuture<HttpResponse<T>>();
+        executor.execute(() -> {
+            try {
+                result.complete(respond(request, responseBodyHandler));
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private <T> HttpResponse<T> respond(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException {
+        var path = request.uri().getRawPath();
+        if (!path.startsWith(basePath)) {
+            throw new IOException("Request " + request.uri() + " is not for simulated server");
+        }
+        var response = simulator.handle(request.method(), path.substring(basePath.length()));
+        return SimulatedHttpResponse.of(request, response, responseBodyHandler);
+    }
+
+    @Override
+    public String statsSummary() {
+        return simulator.statsSummary();
+    }
+}
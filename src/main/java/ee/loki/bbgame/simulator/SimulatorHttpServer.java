@@ -0,0 +1,68 @@
+package ee.loki.bbgame.simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ee.loki.bbgame.BBGameConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// serves GameSimulator over real http on localhost, for load tests that should include the http stack.
+// api is served under the path of config.serverUrl, so only host and port differ from real server url.
+// every request is handled on its own virtual thread, injected latency does not block other requests
+public class SimulatorHttpServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(SimulatorHttpServer.class);
+
+    private final GameSimulator simulator;
+    private final LatencyInjector latency;
+    private final String basePath;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public SimulatorHttpServer(GameSimulator simulator, BBGameConfig gameConfig, int port) throws IOException {
+        this.simulator = simulator;
+        this.latency = new LatencyInjector(gameConfig.simulatorLatency, gameConfig.simulatorLatencyJitter);
+        var path = URI.create(gameConfig.serverUrl).getRawPath();
+        this.basePath = path == null || path.equals("/") ? "" : path;
+
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("simulator-", 0).factory());
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(basePath.isEmpty() ? "/" : basePath, this::handle);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Simulator listening on {}", getServerUrl());
+    }
+
+    // url to use as serverUrl in client config
+    public String getServerUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + basePath;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            latency.sleep();
+            var path = exchange.getRequestURI().getRawPath().substring(basePath.length());
+            var response = simulator.handle(exchange.getRequestMethod(), path);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.statusCode(), response.body().length == 0 ? -1 : response.body().length);
+            exchange.getResponseBody().write(response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ee.loki.bbgame.simulator;
+
+import ee.loki.bbgame.BBGameConfig;
+import ee.loki.bbgame.BBGameMain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+
+// runs simulated game server until JVM is stopped. Seed, latency and port are read from bbgame.properties
+public class SimulatorServerMain {
+    private static final Logger logger = LoggerFactory.getLogger(SimulatorServerMain.class);
+
+    public static void main(String[] args) {
+        var config = new BBGameConfig(args.length > 0 ? args[0] : "bbgame.properties");
+        var simulator = new GameSimulator(config.simulatorSeed, BBGameMain.createObjectMapper());
+        try (var server = new SimulatorHttpServer(simulator, config, config.simulatorPort)) {
+            var stopped = new CountDownLatch(1);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                logger.info("Stopping simulator, {}", simulator.statsSummary());
+                stopped.countDown();
+            }, "shutdown"));
+            server.start();
+            stopped.await();
+        } catch (Exception e) {
+            logger.error("Simulator failed", e);
+        }
+    }
+}
@@ -10,8 +10,11 @@ public class AppContextTest {
         assertNotNull(appContext.config);
         assertNotNull(appContext.objectMapper);
         assertNotNull(appContext.gameClient);
+        assertNotNull(appContext.asyncGameClient);
         assertNotNull(appContext.gameActions);
         assertNotNull(appContext.historyStore);
         assertNotNull(appContext.httpClient);
+        assertNotNull(appContext.shopCatalogCache);
+        assertNotNull(appContext.circuitBreaker);
     }
 }
@@ -286,6 +286,48 @@ public class BBGameActionsTest {
         assertEquals(5, gameContext.level);
     }
 
+    @Test
+    void doShoppingTriesNextUpgradeWhenPurchaseFails() throws IOException, InterruptedException {
+        var httpClientMock = new HttpClientMock();
+        var ctx = new AppContext.AppContextBuilder()
+                .setHttpClient(httpClientMock)
+                .createAppContext();
+
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse( 200, "GET",
+                BBGameConfig.defaultServerUrl + "/" + testGameId + "/shop",
+                """
+        [
+            {"id": "%s", "name": "Healing potion", "cost": 1},
+            {"id": "cs", "name": "Claw Sharpening", "cost": 99},
+            {"id": "gas", "name": "Gasoline", "cost": 99}
+        ]
+        """.formatted(BBGameActions.healthPotionId)
+        ));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse( 200, "POST",
+                BBGameConfig.defaultServerUrl + "/" + testGameId + "/shop/buy/cs",
+                """
+        {"shoppingSuccess": false, "gold": 200, "lives": 9, "level": 1, "turn": 3}
+        """
+        ));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse( 200, "POST",
+                BBGameConfig.defaultServerUrl + "/" + testGameId + "/shop/buy/gas",
+                """
+        {"shoppingSuccess": true, "gold": 101, "lives": 9, "level": 2, "turn": 4}
+        """
+        ));
+
+        var gameContext = new GameContext(testGameId, testMinimumLives, testTargetScore);
+        gameContext.gold = 200;
+        gameContext.lives = gameContext.minimumLives;
+
+        assertTrue(ctx.gameActions.doShopping(gameContext));
+        assertEquals(0, httpClientMock.getPlannedResponsesLeft());
+        assertTrue(gameContext.hasBought("gas"));
+        assertFalse(gameContext.hasBought("cs"));
+        assertEquals(101, gameContext.gold);
+        assertEquals(2, gameContext.level);
+    }
+
     @Test
     void doShoppingRespectsAvailableGoldForHealth() throws IOException, InterruptedException {
         var httpClientMock = new HttpClientMock();
@@ -4,8 +4,10 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.http.HttpClient;
 import java.nio.file.Files;
 import java.time.Duration;
+import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,8 +20,100 @@ public class BBGameConfigTest {
         assertEquals(Duration.ofSeconds(Integer.parseInt(BBGameConfig.defaultConnectTimeoutSec)), config.connectTimeout);
         assertEquals(Duration.ofSeconds(Integer.parseInt(BBGameConfig.defaultReadTimeoutSec)), config.readTimeout);
         assertEquals(BBGameConfig.defaultHistoryFile, config.historyFileName);
+        assertEquals(BBGameConfig.defaultHistoryFormat, config.historyFormat);
+        assertEquals(BBGameConfig.defaultHistoryJournalFile, config.historyJournalFile);
         assertEquals(Integer.parseInt(BBGameConfig.defaultMinimumLives), config.minimumLives);
         assertEquals(Integer.parseInt(BBGameConfig.defaultTargetScore), config.targetScore);
+        assertEquals(Integer.parseInt(BBGameConfig.defaultConcurrentGames), config.concurrentGames);
+        assertEquals(Integer.parseInt(BBGameConfig.defaultTotalGames), config.totalGames);
+        assertEquals(HttpClient.Version.valueOf(BBGameConfig.defaultHttpVersion), config.httpVersion);
+        assertEquals(BBGameConfig.defaultHttpExecutor, config.httpExecutor);
+        assertEquals(Integer.parseInt(BBGameConfig.defaultMaxRequestsPerHost), config.maxRequestsPerHost);
+    }
+
+    @Test
+    void historyValuesAreReadCorrectly() {
+        var props = new Properties();
+        props.setProperty("historyFormat", "json");
+        props.setProperty("historyJournalFile", "journal.jsonl");
+        props.setProperty("historyBinaryFile", "journal.bin");
+        props.setProperty("historyFsyncMs", "250");
+        props.setProperty("historyRetainedSteps", "-1");
+        props.setProperty("statsMinSamples", "7");
+        props.setProperty("historySnapshotFile", "stats.json");
+        props.setProperty("historySnapshotIntervalMs", "5000");
+
+        var config = new BBGameConfig(props);
+        assertEquals("json", config.historyFormat);
+        assertEquals("journal.jsonl", config.historyJournalFile);
+        assertEquals("journal.bin", config.historyBinaryFile);
+        assertEquals(Duration.ofMillis(250), config.historyFsyncInterval);
+        assertEquals(-1, config.historyRetainedSteps);
+        assertEquals(7, config.statsMinSamples);
+        assertEquals("stats.json", config.historySnapshotFile);
+        assertEquals(Duration.ofMillis(5000), config.historySnapshotInterval);
+    }
+
+    @Test
+    void plannerValuesAreReadCorrectly() {
+        var props = new Properties();
+        props.setProperty("strategies", "greedy, planner");
+        props.setProperty("plannerDepth", "4");
+        props.setProperty("plannerBudgetMs", "35");
+        props.setProperty("plannerParallelism", "2");
+
+        var config = new BBGameConfig(props);
+        assertEquals("greedy, planner", config.strategies);
+        assertEquals(4, config.plannerDepth);
+        assertEquals(Duration.ofMillis(35), config.plannerBudget);
+        assertEquals(2, config.plannerParallelism);
+    }
+
+    @Test
+    void transportValuesAreReadCorrectly() {
+        var props = new Properties();
+        props.setProperty("httpVersion", "HTTP_2");
+        props.setProperty("httpExecutor", "fixed");
+        props.setProperty("httpExecutorThreads", "3");
+        props.setProperty("keepAliveTimeoutSec", "30");
+        props.setProperty("connectionPoolSize", "50");
+        props.setProperty("maxRequestsPerHost", "20");
+        props.setProperty("retryMaxAttempts", "5");
+        props.setProperty("retryBaseDelayMs", "10");
+        props.setProperty("retryMaxDelayMs", "200");
+        props.setProperty("circuitFailureThreshold", "7");
+        props.setProperty("circuitOpenMs", "1500");
+        props.setProperty("adaptiveLimit", "true");
+        props.setProperty("adaptiveLimitInitial", "5");
+        props.setProperty("adaptiveLimitMin", "1");
+        props.setProperty("adaptiveLimitMax", "50");
+        props.setProperty("simulator", "true");
+        props.setProperty("simulatorSeed", "-3");
+        props.setProperty("simulatorLatencyMs", "15");
+        props.setProperty("simulatorLatencyJitterMs", "5");
+        props.setProperty("simulatorPort", "9090");
+
+        var config = new BBGameConfig(props);
+        assertEquals(HttpClient.Version.HTTP_2, config.httpVersion);
+        assertEquals("fixed", config.httpExecutor);
+        assertEquals(3, config.httpExecutorThreads);
+        assertEquals(Duration.ofSeconds(30), config.keepAliveTimeout);
+        assertEquals(50, config.connectionPoolSize);
+        assertEquals(20, config.maxRequestsPerHost);
+        assertEquals(5, config.retryMaxAttempts);
+        assertEquals(Duration.ofMillis(10), config.retryBaseDelay);
+        assertEquals(Duration.ofMillis(200), config.retryMaxDelay);
+        assertEquals(7, config.circuitFailureThreshold);
+        assertEquals(Duration.ofMillis(1500), config.circuitOpenDuration);
+        assertTrue(config.adaptiveLimit);
+        assertEquals(5, config.adaptiveLimitInitial);
+        assertEquals(1, config.adaptiveLimitMin);
+        assertEquals(50, config.adaptiveLimitMax);
+        assertTrue(config.simulator);
+        assertEquals(-3, config.simulatorSeed);
+        assertEquals(Duration.ofMillis(15), config.simulatorLatency);
+        assertEquals(Duration.ofMillis(5), config.simulatorLatencyJitter);
+        assertEquals(9090, config.simulatorPort);
     }
 
     @Test
@@ -30,6 +124,8 @@ public class BBGameConfigTest {
         var testHistoryFile = "testHistoryFile";
         var testMinimumLives = 9;
         var testTargetScore = 999;
+        var testConcurrentGames = 16;
+        var testTotalGames = 100;
 
         var testProperties = """
                serverUrl=%s
@@ -38,8 +134,11 @@ public class BBGameConfigTest {
                historyFile=%s
                minimumLives=%d
                targetScore=%d
+               concurrentGames=%d
+               totalGames=%d
                """
-              .formatted(testUrl, testConnectTimeout, testReadTimeout, testHistoryFile, testMinimumLives, testTargetScore);
+              .formatted(testUrl, testConnectTimeout, testReadTimeout, testHistoryFile, testMinimumLives, testTargetScore,
+                      testConcurrentGames, testTotalGames);
 
         var tempFile = File.createTempFile("testsettings", ".props");
         try {
@@ -52,6 +151,8 @@ public class BBGameConfigTest {
             assertEquals(testHistoryFile, config.historyFileName);
             assertEquals(testMinimumLives, config.minimumLives);
             assertEquals(testTargetScore, config.targetScore);
+            assertEquals(testConcurrentGames, config.concurrentGames);
+            assertEquals(testTotalGames, config.totalGames);
         } finally {
             tempFile.delete();
         }
@@ -0,0 +1,131 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.rest.HttpClientMock;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BBGameMainTest {
+    private static final String testGameId = "testGameId";
+    private static final String gameUrl = BBGameConfig.defaultServerUrl + "/" + testGameId;
+
+    private static String board(String adId) {
+        return """
+                [
+                    {
+                        "adId": "%s",
+                        "message": "irrelevant",
+                        "reward": 10,
+                        "expiresIn": 6,
+                        "encrypted": null,
+                        "probability": "irrelevant"
+                    }
+                ]
+                """.formatted(adId);
+    }
+
+    private static String result(int score) {
+        return """
+                {
+                "success": true,
+                "lives": 3,
+                "gold": %d,
+                "score": %d,
+                "highScore": 0,
+                "turn": 1,
+                "message": "You successfully solved the mission!"
+                }
+                """.formatted(score, score);
+    }
+
+    // both turn modes must talk to server in the same order
+    private static HttpClientMock planTwoTurnGame() {
+        var httpClientMock = new HttpClientMock();
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "POST",
+                BBGameConfig.defaultServerUrl + "/game/start",
+                """
+                {"gameId": "%s",
+                "lives": 3,
+                "gold": 0,
+                "level": 0,
+                "score": 0,
+                "highScore": 0,
+                "turn": 0}
+                """.formatted(testGameId)));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET", gameUrl + "/shop", "[]"));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET", gameUrl + "/messages", board("ad1")));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "POST", gameUrl + "/solve/ad1", result(10)));
+        // second turn gets shop items from catalog cache
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET", gameUrl + "/messages", board("ad2")));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "POST", gameUrl + "/solve/ad2", result(20)));
+        return httpClientMock;
+    }
+
+    private static GameContext runTwoTurnGame(boolean pipelined) throws IOException, InterruptedException {
+        var props = new Properties();
+        props.setProperty("targetScore", "20");
+        props.setProperty("pipelinedTurns", String.valueOf(pipelined));
+        var ctx = new AppContext.AppContextBuilder()
+                .setConfig(new BBGameConfig(props))
+                .setHttpClient(planTwoTurnGame())
+                .createAppContext();
+        return BBGameMain.runGame(ctx, () -> false);
+    }
+
+    @Test
+    void pipelinedGameSolvesAdFromBoardFetchedAfterPurchase() throws IOException, InterruptedException {
+        var httpClientMock = new HttpClientMock();
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "POST",
+                BBGameConfig.defaultServerUrl + "/game/start",
+                """
+                {"gameId": "%s",
+                "lives": 3,
+                "gold": 50,
+                "level": 0,
+                "score": 0,
+                "highScore": 0,
+                "turn": 0}
+                """.formatted(testGameId)));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET", gameUrl + "/shop",
+                """
+                [{"id": "hpot", "name": "Healing potion", "cost": 50}]
+                """));
+        // board prefetched together with shop items, ad1 has expired by the time purchase turn is over
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET", gameUrl + "/messages", board("ad1")));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "POST", gameUrl + "/shop/buy/hpot",
+                """
+                {"shoppingSuccess": true, "gold": 0, "lives": 4, "level": 0, "turn": 1}
+                """));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET", gameUrl + "/messages", board("ad2")));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "POST", gameUrl + "/solve/ad2", result(20)));
+
+        var props = new Properties();
+        props.setProperty("targetScore", "20");
+        props.setProperty("pipelinedTurns", "true");
+        var ctx = new AppContext.AppContextBuilder()
+                .setConfig(new BBGameConfig(props))
+                .setHttpClient(httpClientMock)
+                .createAppContext();
+        var gameContext = BBGameMain.runGame(ctx, () -> false);
+
+        assertEquals(20, gameContext.score);
+        assertEquals(0, httpClientMock.getPlannedResponsesLeft());
+    }
+
+    @Test
+    void sequentialGameRunsUntilTargetScore() throws IOException, InterruptedException {
+        var gameContext = runTwoTurnGame(false);
+        assertEquals(20, gameContext.score);
+        assertEquals(20, gameContext.gold);
+    }
+
+    @Test
+    void pipelinedGameRunsUntilTargetScore() throws IOException, InterruptedException {
+        var gameContext = runTwoTurnGame(true);
+        assertEquals(20, gameContext.score);
+        assertEquals(20, gameContext.gold);
+    }
+}
@@ -0,0 +1,76 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.gamemodel.ShopItem;
+import ee.loki.bbgame.gamemodel.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStrategiesTest {
+    // registered as service in test resources
+    public static class LastTaskProvider implements GameStrategyProvider {
+        @Override
+        public String name() {
+            return "last";
+        }
+
+        @Override
+        public GameStrategy create(BBGameConfig config) {
+            return (context, board) -> board.rank() == 0 ? null : board.rankedTask(board.rank() - 1);
+        }
+    }
+
+    private static GameStrategies strategies(String names) {
+        var props = new Properties();
+        props.setProperty("strategies", names);
+        return new GameStrategies(new BBGameConfig(props));
+    }
+
+    @Test
+    void gamesAreAssignedInTurn() {
+        var strategies = strategies("greedy, planner,greedy");
+
+        var assigned = List.of(strategies.assign(), strategies.assign(), strategies.assign(), strategies.assign());
+        assertEquals(List.of("greedy", "planner", "greedy", "greedy"), assigned.stream().map(GameStrategies.Entry::name).toList());
+        assertSame(assigned.get(0), assigned.get(2));
+        assertInstanceOf(PlannerStrategy.class, assigned.get(1).strategy());
+        assertEquals(2, strategies.getEntries().size());
+    }
+
+    @Test
+    void strategyIsLoadedFromServiceProvider() {
+        var strategies = strategies("last");
+        var strategy = strategies.assign().strategy();
+        var tasks = List.of(new Task("a", "Kill", 10, 1, "Gamble", 0), new Task("b", "Kill", 5, 2, "Gamble", 0));
+        var board = new TaskScorer().score(tasks,
+                new AppContext.AppContextBuilder().createAppContext().historyStore.getSuccessRateTable(), 0);
+
+        assertSame(tasks.get(1), strategy.selectTask(new GameContext("game", 5, 100), board));
+    }
+
+    @Test
+    void unknownStrategiesFallBackToGreedy() {
+        var strategies = strategies("cautious, ,");
+
+        assertEquals(GreedyStrategy.name, strategies.assign().name());
+        assertNull(strategies.get("cautious"));
+    }
+
+    @Test
+    void defaultShoppingBuysPotionOnlyWhenLivesAreLow() {
+        var strategy = new GreedyStrategy();
+        var items = new ShopItem[]{new ShopItem("hpot", "Healing potion", 50), new ShopItem("cs", "Claw Sharpening", 100)};
+        var context = new GameContext("game", 3, 100);
+        context.gold = 120;
+
+        context.lives = 2;
+        assertEquals("hpot", strategy.selectPurchase(context, items));
+        context.lives = 3;
+        assertEquals("cs", strategy.selectPurchase(context, items));
+        context.boughtUpgrades.add("cs");
+        assertNull(strategy.selectPurchase(context, items));
+    }
+}
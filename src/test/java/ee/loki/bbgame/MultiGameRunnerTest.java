@@ -0,0 +1,139 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.rest.HttpClientMock;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiGameRunnerTest {
+
+    private static void planGame(HttpClientMock httpClientMock, String gameId, int score) {
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "POST",
+                BBGameConfig.defaultServerUrl + "/game/start",
+                """
+                {"gameId": "%s",
+                "lives": 3,
+                "gold": 0,
+                "level": 1,
+                "score": %d,
+                "highScore": 0,
+                "turn": 0}
+                """.formatted(gameId, score)));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET",
+                BBGameConfig.defaultServerUrl + "/" + gameId + "/shop", "[]"));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET",
+                BBGameConfig.defaultServerUrl + "/" + gameId + "/messages", "[]"));
+    }
+
+    @Test
+    void runsAllGamesAndAggregatesScores() {
+        var props = new Properties();
+        props.setProperty("totalGames", "2");
+        props.setProperty("concurrentGames", "1");
+
+        var httpClientMock = new HttpClientMock();
+        planGame(httpClientMock, "game1", 10);
+        planGame(httpClientMock, "game2", 30);
+
+        var ctx = new AppContext.AppContextBuilder()
+                .setConfig(new BBGameConfig(props))
+                .setHttpClient(httpClientMock)
+                .createAppContext();
+
+        var report = new MultiGameRunner(ctx).run();
+
+        assertEquals(2, report.getGamesFinished());
+        assertEquals(0, report.getGamesFailed());
+        assertEquals(40, report.getTotalScore());
+        assertEquals(20.0, report.getAverageScore());
+    }
+
+    @Test
+    void failedGameIsCountedAndOthersContinue() {
+        var props = new Properties();
+        props.setProperty("totalGames", "2");
+        props.setProperty("concurrentGames", "1");
+
+        var httpClientMock = new HttpClientMock();
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(500, "POST",
+                BBGameConfig.defaultServerUrl + "/game/start", "server error"));
+        planGame(httpClientMock, "game2", 30);
+
+        var ctx = new AppContext.AppContextBuilder()
+                .setConfig(new BBGameConfig(props))
+                .setHttpClient(httpClientMock)
+                .createAppContext();
+
+        var report = new MultiGameRunner(ctx).run();
+
+        assertEquals(1, report.getGamesFinished());
+        assertEquals(1, report.getGamesFailed());
+        assertEquals(30, report.getTotalScore());
+    }
+
+    @Test
+    void playsGamesAgainstSimulator() {
+        var props = new Properties();
+        props.setProperty("simulator", "true");
+        props.setProperty("totalGames", "20");
+        props.setProperty("concurrentGames", "5");
+        props.setProperty("pipelinedTurns", "true");
+        props.setProperty("targetScore", "300");
+
+        var ctx = new AppContext.AppContextBuilder()
+                .setConfig(new BBGameConfig(props))
+                .createAppContext();
+
+        var report = new MultiGameRunner(ctx).run();
+
+        assertEquals(20, report.getGamesFinished());
+        assertEquals(0, report.getGamesFailed());
+        assertTrue(ctx.httpClient.statsSummary().contains("games started: 20"));
+    }
+
+    @Test
+    void strategiesShareGamesAgainstSimulator() {
+        var props = new Properties();
+        props.setProperty("simulator", "true");
+        props.setProperty("totalGames", "10");
+        props.setProperty("concurrentGames", "5");
+        props.setProperty("targetScore", "300");
+        props.setProperty("strategies", "greedy,planner");
+        props.setProperty("plannerBudgetMs", "1000");
+
+        var ctx = new AppContext.AppContextBuilder()
+                .setConfig(new BBGameConfig(props))
+                .createAppContext();
+
+        var report = new MultiGameRunner(ctx).run();
+
+        assertEquals(10, report.getGamesFinished());
+        assertEquals(0, report.getGamesFailed());
+        for (var name : new String[]{GreedyStrategy.name, PlannerStrategy.name}) {
+            var metrics = ctx.strategies.get(name).metrics();
+            assertEquals(5, metrics.getGames());
+            assertTrue(metrics.getScorePerTurn() > 0);
+            assertTrue(metrics.getScorePerRequest() > 0);
+            assertTrue(metrics.getScorePerRequest() < metrics.getScorePerTurn());
+        }
+        var planner = (PlannerStrategy) ctx.strategies.get(PlannerStrategy.name).strategy();
+        assertTrue(planner.getPlanner().getPlans() > 0);
+    }
+
+    @Test
+    void stoppedRunnerStartsNoGames() {
+        var httpClientMock = new HttpClientMock();
+        var ctx = new AppContext.AppContextBuilder()
+                .setHttpClient(httpClientMock)
+                .createAppContext();
+
+        var runner = new MultiGameRunner(ctx);
+        runner.requestStop();
+        var report = runner.run();
+
+        assertEquals(0, report.getGamesFinished());
+        assertEquals(0, report.getGamesFailed());
+    }
+}
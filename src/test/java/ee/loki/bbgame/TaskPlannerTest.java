@@ -0,0 +1,77 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.gamemodel.Task;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import ee.loki.bbgame.history.HistoryStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskPlannerTest {
+    // success rates: Sure thing 1.0, Quite likely 0.9, Gamble 0.5
+    private static HistoryStore history() {
+        var historyStore = new HistoryStore(BBGameMain.createObjectMapper());
+        addSteps(historyStore, "Sure thing", 1, 0);
+        addSteps(historyStore, "Quite likely", 9, 1);
+        addSteps(historyStore, "Gamble", 1, 1);
+        return historyStore;
+    }
+
+    private static void addSteps(HistoryStore historyStore, String probability, int succeeded, int failed) {
+        for (int i = 0; i < succeeded + failed; i++) {
+            historyStore.addGameStep("game", new Task("ad", "Kill", 10, 1, probability, 0),
+                    new TaskResult(i < succeeded, 3, 0, 0, 0, i, "what"));
+        }
+    }
+
+    private static TaskScorer score(List<Task> tasks) {
+        return new TaskScorer().score(tasks, history().getSuccessRateTable(), 0);
+    }
+
+    @Test
+    void taskExpiringSoonIsTakenFirstWhenBetterOneWaits() {
+        var waiting = new Task("waiting", "Kill", 10, 3, "Quite likely", 0);
+        var expiring = new Task("expiring", "Kill", 9, 1, "Quite likely", 0);
+        var tasks = List.of(expiring, waiting);
+
+        assertSame(waiting, score(tasks).best());
+        assertSame(expiring, new TaskPlanner(2, Duration.ofSeconds(5), 2).plan(score(tasks), 3));
+        assertSame(waiting, new TaskPlanner(1, Duration.ofSeconds(5), 2).plan(score(tasks), 3));
+    }
+
+    @Test
+    void lastLifeIsNotRiskedBeforeSafeTask() {
+        var gamble = new Task("gamble", "Kill", 30, 2, "Gamble", 0);
+        var safe = new Task("safe", "Kill", 10, 2, "Sure thing", 0);
+        var tasks = List.of(gamble, safe);
+        var planner = new TaskPlanner(2, Duration.ofSeconds(5), 2);
+
+        assertSame(gamble, score(tasks).best());
+        // both orders are worth 25 with lives to spare, greedy order wins the tie
+        assertSame(gamble, planner.plan(score(tasks), 3));
+        assertSame(safe, planner.plan(score(tasks), 1));
+        assertEquals(2, planner.getPlans());
+    }
+
+    @Test
+    void greedyTaskIsTakenWhenBudgetRunsOut() {
+        var tasks = new ArrayList<Task>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(new Task("ad" + i, "Kill", 10 + i, 10, i % 2 == 0 ? "Gamble" : "Quite likely", 0));
+        }
+        var planner = new TaskPlanner(12, Duration.ofMillis(5), 2);
+
+        assertSame(score(tasks).best(), planner.plan(score(tasks), 3));
+        assertEquals(1, planner.getFallbacks());
+        assertEquals(0, planner.getPlans());
+    }
+
+    @Test
+    void emptyBoardHasNoPlan() {
+        assertNull(new TaskPlanner(3, Duration.ofSeconds(1), 1).plan(score(List.of()), 3));
+    }
+}
@@ -0,0 +1,106 @@
+package ee.loki.bbgame;
+
+import ee.loki.bbgame.gamemodel.KeywordClass;
+import ee.loki.bbgame.gamemodel.Task;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import ee.loki.bbgame.history.HistoryStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskScorerTest {
+    private static final String[] probabilities = {"Piece of cake", "Gamble", "Risky", "Impossible"};
+
+    private static HistoryStore history() {
+        var historyStore = new HistoryStore(BBGameMain.createObjectMapper());
+        var random = new SplittableRandom(3);
+        for (int i = 0; i < 200; i++) {
+            historyStore.addGameStep("game", new Task("ad", "Kill", 10, 1, probabilities[i % 3], 0),
+                    new TaskResult(random.nextInt(3) == 0, 3, 0, 0, 0, i, "what"));
+        }
+        return historyStore;
+    }
+
+    // board with many equal values and expirations, ordered by expiresIn like MessageBoard
+    private static List<Task> board(SplittableRandom random, int size) {
+        var result = new ArrayList<Task>();
+        for (int i = 0; i < size; i++) {
+            result.add(new Task("ad" + i, "Kill", 10 * random.nextInt(4), 1 + random.nextInt(3),
+                    probabilities[random.nextInt(probabilities.length)], 0));
+        }
+        result.sort(Comparator.comparingInt(Task::expiresIn));
+        return result;
+    }
+
+    // selection rule before scorer
+    private static Task selectOneByOne(List<Task> tasks, HistoryStore historyStore) {
+        double bestValue = -1;
+        int bestExpire = Integer.MAX_VALUE;
+        Task bestTask = null;
+        for (Task task : tasks) {
+            var currentValue = historyStore.getSuccessRate(task.probability(), 0, KeywordClass.KILL) * task.reward();
+            if (currentValue >= bestValue) {
+                if (currentValue > bestValue || task.expiresIn() < bestExpire) {
+                    bestValue = currentValue;
+                    bestExpire = task.expiresIn();
+                    bestTask = task;
+                }
+            }
+        }
+        return bestTask;
+    }
+
+    @Test
+    void bestTaskIsSameAsSelectedOneByOne() {
+        var historyStore = history();
+        var scorer = new TaskScorer();
+        var random = new SplittableRandom(7);
+        for (int round = 0; round < 200; round++) {
+            var tasks = board(random, random.nextInt(40));
+            scorer.score(tasks, historyStore.getSuccessRateTable(), 0);
+            var best = scorer.best();
+            assertSame(selectOneByOne(tasks, historyStore), best);
+            var ranked = scorer.ranked();
+            assertEquals(tasks.size(), ranked.size());
+            if (!tasks.isEmpty()) {
+                assertSame(best, ranked.getFirst());
+            }
+        }
+    }
+
+    @Test
+    void tasksAreRankedByValueThenExpirationThenBoardOrder() {
+        var historyStore = history();
+        var tasks = board(new SplittableRandom(11), 300);
+        var scorer = new TaskScorer().score(tasks, historyStore.getSuccessRateTable(), 0);
+        var values = scorer.getValues();
+        var ranked = scorer.ranked();
+        for (int i = 1; i < ranked.size(); i++) {
+            var previous = tasks.indexOf(ranked.get(i - 1));
+            var current = tasks.indexOf(ranked.get(i));
+            assertTrue(values[previous] > values[current]
+                    || values[previous] == values[current] && ranked.get(i - 1).expiresIn() < ranked.get(i).expiresIn()
+                    || values[previous] == values[current] && ranked.get(i - 1).expiresIn() == ranked.get(i).expiresIn()
+                            && previous < current);
+        }
+    }
+
+    @Test
+    void tableIsReplacedOnlyWhenStatisticsChange() {
+        var historyStore = history();
+        var table = historyStore.getSuccessRateTable();
+        assertSame(table, historyStore.getSuccessRateTable());
+
+        historyStore.addGameStep("game", new Task("ad", "Kill", 10, 1, "Impossible", 0),
+                new TaskResult(true, 3, 0, 0, 0, 1, "what"));
+        var updated = historyStore.getSuccessRateTable();
+        assertNotSame(table, updated);
+        assertEquals(0.0, table.getSuccessRate("Impossible", 0, KeywordClass.KILL));
+        assertEquals(1.0, updated.getSuccessRate("Impossible", 0, KeywordClass.KILL));
+    }
+}
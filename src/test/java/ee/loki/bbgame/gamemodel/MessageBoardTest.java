@@ -0,0 +1,71 @@
+package ee.loki.bbgame.gamemodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageBoardTest {
+
+    private static Ad plainAd(String adId, int expiresIn) {
+        return new Ad(adId, "message " + adId, 10, expiresIn, "Sure thing", 0);
+    }
+
+    private static Ad encryptedAd(String adId, int expiresIn) {
+        return new Ad(enc_1(adId), enc_1("message " + adId), 10, expiresIn, enc_1("Sure thing"), 1);
+    }
+
+    private static String enc_1(String input) {
+        return Base64.getEncoder().encodeToString(input.getBytes());
+    }
+
+    @Test
+    void tasksAreOrderedByExpiration() {
+        var board = new MessageBoard();
+        var tasks = board.update(new Ad[]{plainAd("a", 5), plainAd("b", 2), plainAd("c", 5), plainAd("d", 1)});
+
+        assertEquals(4, tasks.size());
+        assertEquals("d", tasks.get(0).adId());
+        assertEquals("b", tasks.get(1).adId());
+        assertEquals("a", tasks.get(2).adId());
+        assertEquals("c", tasks.get(3).adId());
+    }
+
+    @Test
+    void seenAdsAreNotDecodedAgain() {
+        var board = new MessageBoard();
+        board.update(new Ad[]{encryptedAd("a", 5), encryptedAd("b", 3)});
+        assertEquals(2, board.getDecodedAds());
+
+        var tasks = board.update(new Ad[]{encryptedAd("a", 4), encryptedAd("b", 2), encryptedAd("c", 7)});
+        assertEquals(3, board.getDecodedAds());
+        assertEquals(3, tasks.size());
+        assertEquals("b", tasks.get(0).adId());
+        assertEquals(2, tasks.get(0).expiresIn());
+        assertEquals("message b", tasks.get(0).message());
+        assertEquals("a", tasks.get(1).adId());
+        assertEquals(4, tasks.get(1).expiresIn());
+        assertEquals("c", tasks.get(2).adId());
+    }
+
+    @Test
+    void missingAdsAreDropped() {
+        var board = new MessageBoard();
+        board.update(new Ad[]{plainAd("a", 5), plainAd("b", 1)});
+        var tasks = board.update(new Ad[]{plainAd("a", 4)});
+
+        assertEquals(1, tasks.size());
+        assertEquals("a", tasks.getFirst().adId());
+        assertEquals(tasks, board.getTasks());
+    }
+
+    @Test
+    void adsWithUnknownEncryptionAreSkipped() {
+        var board = new MessageBoard();
+        var tasks = board.update(new Ad[]{plainAd("a", 5), new Ad("garbage", "", 1, 1, "irrelevant", 7)});
+
+        assertEquals(1, tasks.size());
+        assertEquals("a", tasks.getFirst().adId());
+    }
+}
@@ -1,8 +1,11 @@
 package ee.loki.bbgame.gamemodel;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import ee.loki.bbgame.BBGameMain;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
 public class TaskTest
@@ -17,12 +20,68 @@ public class TaskTest
     }
 
     private String enc_1(String input) {
-        return Base64.getEncoder().encodeToString(input.getBytes());
+        return Base64.getEncoder().encodeToString(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void canDecryptType_1Utf8() {
+        var message = "Päästa printsess Õismäelt";
+        for (int length = 0; length <= message.length(); length++) {
+            var expected = message.substring(0, length);
+            Assertions.assertEquals(expected, new Task(enc_1("a"), enc_1(expected), 10, 3, enc_1("p"), 1).message());
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new Task("a", "no*base64", 10, 3, "p", 1));
+    }
+
+    @Test
+    void canDecryptType_2() {
+        var task = new Task("nqVq", "Uryc Rqqvr Fzvgu jvgu cnvagvat uvf ebbs", 10, 3, "Jnyx va gur cnex", 2);
+
+        Assertions.assertEquals(new Task("adId", "Help Eddie Smith with painting his roof", 10, 3,
+                "Walk in the park", 0), task);
+        Assertions.assertFalse(task.encryptionUnknown());
+    }
+
+    @Test
+    void canRegisterDecoder() {
+        Assertions.assertTrue(new Ad("a", "b", 1, 1, "c", 42).encryptionUnknown());
+        AdDecoders.register(42, value -> new StringBuilder(value).reverse().toString());
+        try {
+            var task = new Ad("dIda", "egassem", 10, 3, "ksiR", 42).toTask();
+            Assertions.assertEquals(new Task("adId", "message", 10, 3, "Risk", 0), task);
+            Assertions.assertFalse(new Ad("a", "b", 1, 1, "c", 42).encryptionUnknown());
+        } finally {
+            AdDecoders.unregister(42);
+        }
+        Assertions.assertTrue(new Ad("a", "b", 1, 1, "c", 42).encryptionUnknown());
+    }
+
+    @Test
+    void probabilityIsInterned() {
+        var task = new Task("adId", "message", 10, 3, new String("Walk in the park"), 0);
+        var other = new Task("adId2", "message", 10, 3, new String("Walk in the park"), 0);
+
+        Assertions.assertSame(task.probability(), other.probability());
+        Assertions.assertEquals(task.probabilityId(), other.probabilityId());
+        Assertions.assertEquals("Walk in the park", ProbabilityClasses.name(task.probabilityId()));
+        Assertions.assertEquals(ProbabilityClasses.none, new Task("adId", "message", 1, 1, null, 0).probabilityId());
+    }
+
+    @Test
+    void probabilityIdIsNotInJson() throws JsonProcessingException {
+        var objectMapper = BBGameMain.createObjectMapper();
+        var task = new Task("adId", "message", 10, 3, "Risky", 0);
+
+        var json = objectMapper.writeValueAsString(task);
+        Assertions.assertFalse(json.contains("probabilityId"), json);
+        var read = objectMapper.readValue(json, Task.class);
+        Assertions.assertEquals(task, read);
+        Assertions.assertSame(task.probability(), read.probability());
     }
 
     @Test
     void canDetectUnknownEncryption() {
-        var task = new Task("garbage", "", 1, 1, "irrelevant", 2);
+        var task = new Task("garbage", "", 1, 1, "irrelevant", 7);
         Assertions.assertTrue(task.encryptionUnknown());
     }
 }
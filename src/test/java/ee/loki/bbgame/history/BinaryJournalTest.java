@@ -0,0 +1,130 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.gamemodel.Task;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryJournalTest {
+    private static final ObjectMapper objectMapper = BBGameMain.createObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private static GameStep step(int i) {
+        return new GameStep("game" + i / 2, new Task("ad" + i, "Päästa küla № " + i, 10 * i, i + 1, "p" + i % 3, 0),
+                new TaskResult(i % 2 == 0, 3, i, i * 7, 0, i, i % 4 == 0 ? null : "what"),
+                i % 3 == 0 ? null : new DragonState(i / 3, 3, i * 5));
+    }
+
+    private static List<GameStep> replay(HistoryJournal journal) throws IOException {
+        var result = new ArrayList<GameStep>();
+        journal.replay(result::add);
+        return result;
+    }
+
+    @Test
+    void blocksAreReplayedInOrder() throws IOException, InterruptedException {
+        var file = tempDir.resolve("history.bin");
+        try (var journal = new BinaryJournal(file, Duration.ofMinutes(1))) {
+            journal.append(step(1));
+            journal.append(step(2));
+            journal.append(step(3));
+            journal.flush();
+            journal.append(step(4));
+        }
+
+        var replayed = replay(new BinaryJournal(file, Duration.ZERO));
+        assertEquals(List.of(step(1), step(2), step(3), step(4)), replayed);
+        // probability strings are decoded once per block and shared by rows
+        assertSame(replayed.get(0).attemptedTask().probability(), replayed.get(0).attemptedTask().probability());
+    }
+
+    @Test
+    void tornBlockIsCutOff() throws IOException, InterruptedException {
+        var file = tempDir.resolve("history.bin");
+        try (var journal = new BinaryJournal(file, Duration.ZERO)) {
+            journal.append(step(1));
+            journal.flush();
+            journal.append(step(2));
+        }
+        var fileLength = Files.size(file);
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(fileLength - 5);
+        }
+
+        try (var journal = new BinaryJournal(file, Duration.ZERO)) {
+            assertEquals(List.of(step(1)), replay(journal));
+            journal.append(step(3));
+        }
+        assertEquals(List.of(step(1), step(3)), replay(new BinaryJournal(file, Duration.ZERO)));
+    }
+
+    @Test
+    void blockWithDamagedHeaderInTheMiddleIsSkipped() throws IOException, InterruptedException {
+        var file = tempDir.resolve("history.bin");
+        long damagedStart;
+        try (var journal = new BinaryJournal(file, Duration.ZERO)) {
+            journal.append(step(1));
+            journal.flush();
+            damagedStart = Files.size(file);
+            journal.append(step(2));
+            journal.flush();
+            journal.append(step(3));
+        }
+        var fileLength = Files.size(file);
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8), damagedStart);
+        }
+
+        try (var journal = new BinaryJournal(file, Duration.ZERO)) {
+            assertEquals(List.of(step(1), step(3)), replay(journal));
+            assertEquals(fileLength, Files.size(file));
+            journal.append(step(4));
+        }
+        assertEquals(List.of(step(1), step(3), step(4)), replay(new BinaryJournal(file, Duration.ZERO)));
+    }
+
+    @Test
+    void garbageAtTheEndIsCutOff() throws IOException {
+        var file = tempDir.resolve("history.bin");
+        try (var journal = new BinaryJournal(file, Duration.ZERO)) {
+            journal.append(step(1));
+        }
+        var fileLength = Files.size(file);
+        Files.write(file, new byte[100], StandardOpenOption.APPEND);
+
+        assertEquals(List.of(step(1)), replay(new BinaryJournal(file, Duration.ZERO)));
+        assertEquals(fileLength, Files.size(file));
+    }
+
+    @Test
+    void historyIsConvertedBetweenFormats() throws IOException, InterruptedException {
+        var steps = List.of(step(1), step(2), step(3));
+        var jsonFile = tempDir.resolve("history.json");
+        objectMapper.writeValue(jsonFile.toFile(), steps);
+
+        var binaryFile = tempDir.resolve("history.bin");
+        var jsonLinesFile = tempDir.resolve("history.jsonl");
+        assertEquals(3, HistoryConverterMain.convert(objectMapper, "json", jsonFile, "binary", binaryFile));
+        assertEquals(3, HistoryConverterMain.convert(objectMapper, "binary", binaryFile, "jsonl", jsonLinesFile));
+
+        assertEquals(steps, replay(new JsonLinesJournal(objectMapper, jsonLinesFile, Duration.ZERO)));
+        assertThrows(IOException.class,
+                () -> HistoryConverterMain.convert(objectMapper, "json", jsonFile, "binary", binaryFile));
+    }
+}
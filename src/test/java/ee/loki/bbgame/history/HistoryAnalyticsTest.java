@@ -0,0 +1,85 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.gamemodel.Task;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoryAnalyticsTest {
+    private static final ObjectMapper objectMapper = BBGameMain.createObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private static GameStep step(int i) {
+        return new GameStep("game" + i / 10, new Task("ad" + i, i % 2 == 0 ? "Kill a troll" : "Help a baker", 10 * (i % 4),
+                1, "p" + i % 3, 0), new TaskResult(i % 5 == 0, 3, 0, 0, 0, i % 60, "what"),
+                i % 7 == 0 ? null : new DragonState(i % 6, 3, 0));
+    }
+
+    private static final List<GameStep> steps = IntStream.range(0, 500).mapToObj(HistoryAnalyticsTest::step).toList();
+
+    // journal written in many small blocks
+    private Path writeJournal(String fileName) throws IOException, InterruptedException {
+        var file = tempDir.resolve(fileName);
+        try (var journal = HistoryJournals.create(HistoryJournals.formatOf(file), file, objectMapper, Duration.ZERO)) {
+            for (int i = 0; i < steps.size(); i++) {
+                journal.append(steps.get(i));
+                if (i % 13 == 0) {
+                    journal.flush();
+                }
+            }
+        }
+        return file;
+    }
+
+    @Test
+    void journalRangesCoverAllStepsOnce() throws IOException, InterruptedException {
+        for (var fileName : List.of("history.jsonl", "history.bin")) {
+            var file = writeJournal(fileName);
+            var journal = HistoryJournals.create(HistoryJournals.formatOf(file), file, objectMapper, Duration.ZERO);
+            var offsets = journal.split(7);
+            assertTrue(offsets.size() > 3, fileName);
+            var replayed = new ArrayList<GameStep>();
+            for (int i = 1; i < offsets.size(); i++) {
+                journal.replayRange(offsets.get(i - 1), offsets.get(i), replayed::add);
+            }
+            assertEquals(steps, replayed, fileName);
+        }
+    }
+
+    @Test
+    void filesOfAllFormatsAreAggregated() throws IOException, InterruptedException {
+        var json = tempDir.resolve("history.json");
+        HistoryJournals.write(HistoryJournals.json, json, objectMapper, consumer -> steps.forEach(consumer));
+        var files = List.of(json, writeJournal("history.jsonl"), writeJournal("history.bin"));
+
+        var expected = new HistoryAnalytics();
+        steps.forEach(expected::add);
+        var analytics = HistoryAnalyticsMain.analyze(objectMapper, files, 5);
+
+        assertEquals(3 * steps.size(), analytics.getSteps());
+        for (var probability : List.of("p0", "p1", "p2")) {
+            var expectedAggregate = expected.getByProbability().get(probability);
+            var aggregate = analytics.getByProbability().get(probability);
+            assertEquals(3 * expectedAggregate.steps, aggregate.steps);
+            assertEquals(3 * expectedAggregate.succeeded, aggregate.succeeded);
+            assertEquals(3 * expectedAggregate.rewards, aggregate.rewards);
+        }
+        var report = analytics.report();
+        assertTrue(report.contains("KILL"), report);
+        assertTrue(report.contains("unknown"), report);
+        assertTrue(report.contains("  25-49"), report);
+    }
+}
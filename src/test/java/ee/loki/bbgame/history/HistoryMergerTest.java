@@ -0,0 +1,100 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.gamemodel.Task;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoryMergerTest {
+    private static final ObjectMapper objectMapper = BBGameMain.createObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private static GameStep step(String gameId, int turn, String message) {
+        return new GameStep(gameId, new Task("ad" + turn, message, 10, 1, "p", 0),
+                new TaskResult(turn % 2 == 0, 3, turn, turn, 0, turn, "what"));
+    }
+
+    private Path write(String fileName, List<GameStep> steps) throws IOException, InterruptedException {
+        var file = tempDir.resolve(fileName);
+        HistoryJournals.write(HistoryJournals.formatOf(file), file, objectMapper, consumer -> steps.forEach(consumer));
+        return file;
+    }
+
+    @Test
+    void duplicateStepsOfAllInputsAreMergedIntoOrderedHistory() throws IOException, InterruptedException {
+        var hostA = write("a.json", IntStream.range(0, 10).mapToObj(turn -> step("g1", turn, "a")).toList());
+        var hostB = write("b.jsonl", IntStream.range(5, 15).mapToObj(turn -> step("g1", turn, "b")).toList());
+        var hostC = write("c.bin", IntStream.range(0, 4).mapToObj(turn -> step("g0", 3 - turn, "c")).toList());
+
+        var merged = tempDir.resolve("merged.jsonl");
+        var merger = new HistoryMerger(objectMapper, 3, 2);
+        assertEquals(19, merger.merge(List.of(hostA, hostB, hostC), HistoryJournals.jsonLines, merged));
+
+        var expected = new ArrayList<GameStep>();
+        IntStream.range(0, 4).forEach(turn -> expected.add(step("g0", turn, "c")));
+        IntStream.range(0, 10).forEach(turn -> expected.add(step("g1", turn, "a")));
+        IntStream.range(10, 15).forEach(turn -> expected.add(step("g1", turn, "b")));
+        var result = new ArrayList<GameStep>();
+        HistoryJournals.read(HistoryJournals.jsonLines, merged, objectMapper, result::add);
+        assertEquals(expected, result);
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(4, files.count());
+        }
+    }
+
+    @Test
+    void failedWriteLeavesNoTarget() throws IOException, InterruptedException {
+        for (var fileName : List.of("failed.json", "failed.jsonl", "failed.bin")) {
+            var file = tempDir.resolve(fileName);
+            assertThrows(IOException.class, () -> HistoryJournals.write(HistoryJournals.formatOf(file), file,
+                    objectMapper, consumer -> {
+                        consumer.accept(step("g1", 1, "a"));
+                        throw new IOException("source failed");
+                    }));
+            try (var files = Files.list(tempDir)) {
+                assertEquals(0, files.count());
+            }
+
+            // nothing left over blocks writing it again
+            write(fileName, List.of(step("g1", 2, "a")));
+            var result = new ArrayList<GameStep>();
+            HistoryJournals.read(HistoryJournals.formatOf(file), file, objectMapper, result::add);
+            assertEquals(List.of(step("g1", 2, "a")), result);
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void tornInputIsNotRepaired() throws IOException, InterruptedException {
+        var host = write("a.jsonl", List.of(step("g1", 1, "a"), step("g1", 2, "a")));
+        var torn = objectMapper.writeValueAsString(step("g1", 3, "a"));
+        Files.writeString(host, torn.substring(0, torn.length() / 2), StandardOpenOption.APPEND);
+        var hostLength = Files.size(host);
+
+        var merged = tempDir.resolve("merged.jsonl");
+        assertEquals(2, new HistoryMerger(objectMapper, 3, 2).merge(List.of(host), HistoryJournals.jsonLines, merged));
+        assertEquals(hostLength, Files.size(host));
+    }
+
+    @Test
+    void existingTargetIsNotOverwritten() throws IOException, InterruptedException {
+        var host = write("a.json", List.of(step("g1", 1, "a")));
+        var merger = new HistoryMerger(objectMapper, 3, 2);
+        assertThrows(IOException.class, () -> merger.merge(List.of(host), HistoryJournals.json, host));
+    }
+}
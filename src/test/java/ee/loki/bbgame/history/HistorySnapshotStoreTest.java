@@ -0,0 +1,142 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.gamemodel.Task;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistorySnapshotStoreTest {
+    private static final ObjectMapper objectMapper = BBGameMain.createObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private static GameStep step(int i, boolean success) {
+        return new GameStep("game", new Task("ad" + i, "message" + i, 10, 1, "p", 0),
+                new TaskResult(success, 3, i, i, 0, i, "what" + i));
+    }
+
+    private HistoryStore open(String format, Path journalFile, Path snapshotFile) throws IOException {
+        var store = new HistoryStore(objectMapper);
+        store.openJournal(HistoryJournals.create(format, journalFile, objectMapper, Duration.ZERO),
+                new HistorySnapshotStore(objectMapper, snapshotFile, journalFile.toString(), Duration.ofMinutes(1)),
+                null);
+        return store;
+    }
+
+    private static void add(HistoryStore store, GameStep gameStep) {
+        store.addGameStep(gameStep.gameId(), gameStep.attemptedTask(), gameStep.attemptResult());
+    }
+
+    @Test
+    void onlyJournalTailAfterSnapshotIsReplayed() throws IOException {
+        for (var format : new String[] {HistoryJournals.jsonLines, HistoryJournals.binary}) {
+            var journalFile = tempDir.resolve("history." + format);
+            var snapshotFile = tempDir.resolve(format + ".snapshot.json");
+
+            var first = open(format, journalFile, snapshotFile);
+            add(first, step(1, true));
+            add(first, step(2, false));
+            add(first, step(3, false));
+            first.closeJournal();
+            assertEquals(Files.size(journalFile),
+                    HistorySnapshot.read(objectMapper, snapshotFile).journalOffset());
+
+            // steps written after last snapshot, as if process was killed before writing it
+            try (var journal = HistoryJournals.create(format, journalFile, objectMapper, Duration.ZERO)) {
+                journal.append(step(4, true));
+                journal.append(step(5, true));
+            }
+
+            var second = open(format, journalFile, snapshotFile);
+            assertEquals(3.0 / 5.0, second.getSuccessRate("p"), format);
+            assertEquals(List.of(step(4, true), step(5, true)), second.getHistory(), format);
+            second.closeJournal();
+        }
+    }
+
+    @Test
+    void compactionArchivesJournalAndKeepsStatistics() throws IOException {
+        var journalFile = tempDir.resolve("history.jsonl");
+        var snapshotFile = tempDir.resolve("snapshot.json");
+        var first = open(HistoryJournals.jsonLines, journalFile, snapshotFile);
+        add(first, step(1, true));
+        add(first, step(2, false));
+        first.closeJournal();
+
+        var archive = HistoryCompactorMain.compact(objectMapper, HistoryJournals.jsonLines, journalFile.toString(),
+                snapshotFile);
+        assertTrue(Files.exists(archive));
+        assertFalse(Files.exists(journalFile));
+        assertNull(HistoryCompactorMain.compact(objectMapper, HistoryJournals.jsonLines, journalFile.toString(),
+                snapshotFile));
+
+        var second = open(HistoryJournals.jsonLines, journalFile, snapshotFile);
+        assertEquals(0.5, second.getSuccessRate("p"));
+        assertEquals(List.of(), second.getHistory());
+        add(second, step(3, true));
+        second.closeJournal();
+
+        var third = open(HistoryJournals.jsonLines, journalFile, snapshotFile);
+        assertEquals(2.0 / 3.0, third.getSuccessRate("p"));
+        third.closeJournal();
+    }
+
+    @Test
+    void crashBetweenArchivingAndSnapshotWriteLosesNothing() throws IOException {
+        for (var format : new String[] {HistoryJournals.jsonLines, HistoryJournals.binary}) {
+            var journalFile = tempDir.resolve("crashed." + format);
+            var snapshotFile = tempDir.resolve(format + ".crashed.snapshot.json");
+            var first = open(format, journalFile, snapshotFile);
+            add(first, step(1, true));
+            add(first, step(2, false));
+            first.closeJournal();
+            var staleOffset = HistorySnapshot.read(objectMapper, snapshotFile).journalOffset();
+
+            // compaction moved journal away, but did not get to write snapshot for the new one
+            Files.move(journalFile, tempDir.resolve("crashed." + format + ".archived"));
+
+            var second = open(format, journalFile, snapshotFile);
+            assertEquals(0.5, second.getSuccessRate("p"), format);
+            assertEquals(0, HistorySnapshot.read(objectMapper, snapshotFile).journalOffset(), format);
+            second.closeJournal();
+
+            // new journal grows past stale offset before snapshot is written again
+            try (var journal = HistoryJournals.create(format, journalFile, objectMapper, Duration.ZERO)) {
+                for (int i = 3; i <= 6; i++) {
+                    journal.append(step(i, true));
+                }
+            }
+            var journalLength = Files.size(journalFile);
+            assertTrue(journalLength >= staleOffset, format);
+
+            var third = open(format, journalFile, snapshotFile);
+            assertEquals(5.0 / 6.0, third.getSuccessRate("p"), format);
+            assertEquals(List.of(step(3, true), step(4, true), step(5, true), step(6, true)), third.getHistory(), format);
+            assertEquals(journalLength, Files.size(journalFile), format);
+            third.closeJournal();
+        }
+    }
+
+    @Test
+    void snapshotOfOtherJournalIsIgnored() throws IOException {
+        var snapshotFile = tempDir.resolve("snapshot.json");
+        var first = open(HistoryJournals.jsonLines, tempDir.resolve("history.jsonl"), snapshotFile);
+        add(first, step(1, true));
+        first.closeJournal();
+
+        var other = open(HistoryJournals.binary, tempDir.resolve("history.bin"), snapshotFile);
+        assertEquals(0.0, other.getSuccessRate("p"));
+        other.closeJournal();
+    }
+}
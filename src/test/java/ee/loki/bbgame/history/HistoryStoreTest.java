@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,6 +43,84 @@ public class HistoryStoreTest {
         }
     }
 
+    @Test
+    void historyFileIsNotReplacedWithoutCommit() throws IOException {
+        var gameId = createTestGameId();
+        var tempFile = File.createTempFile("history", ".json");
+        var writerTempFile = new File(tempFile.getAbsolutePath() + ".tmp");
+        try {
+            createTestStore(2, gameId).saveGameHistory(tempFile.getAbsolutePath());
+            var saved = Files.readString(tempFile.toPath());
+
+            try (var writer = new JsonHistoryFile.Writer(objectMapper, tempFile.toPath())) {
+                writer.write(new GameStep(gameId, testTask, successResult));
+            }
+
+            assertEquals(saved, Files.readString(tempFile.toPath()));
+            assertFalse(writerTempFile.exists());
+        } finally {
+            tempFile.delete();
+            writerTempFile.delete();
+        }
+    }
+
+    @Test
+    void onlyLastStepsAreRetainedButStatisticsCoverAllSteps() {
+        var gameId = createTestGameId();
+        var store = new HistoryStore(objectMapper, 2);
+        store.addGameStep(gameId, testTask, successResult);
+        store.addGameStep(gameId, testTask, failureResult);
+        store.addGameStep(gameId, testTask, failureResult);
+
+        assertEquals(2, store.getHistory().size());
+        assertEquals(failureResult, store.getHistory().get(0).attemptResult());
+        assertEquals(1.0 / 3.0, store.getSuccessRate(testProbability));
+    }
+
+    @Test
+    void savingAfterLoadKeepsStepsNotRetained() throws IOException {
+        var gameId = createTestGameId();
+        var tempFile = File.createTempFile("history", ".json");
+        try {
+            createTestStore(5, gameId).saveGameHistory(tempFile.getAbsolutePath());
+
+            var store = new HistoryStore(objectMapper, 1);
+            store.loadGameHistory(tempFile.getAbsolutePath());
+            store.addGameStep(gameId, testTask, successResult);
+            store.saveGameHistory(tempFile.getAbsolutePath());
+
+            var resultStore = new HistoryStore(objectMapper);
+            resultStore.loadGameHistory(tempFile.getAbsolutePath());
+            assertEquals(6, resultStore.getHistory().size());
+            assertEquals(testTask, resultStore.getHistory().get(5).attemptedTask());
+            assertEquals(1.0, resultStore.getSuccessRate(testProbability));
+            assertEquals(1.0, resultStore.getSuccessRate("p3"));
+        } finally {
+            tempFile.delete();
+        }
+    }
+
+    @Test
+    void concurrentlyAddedStepsAreAllCounted() throws InterruptedException {
+        var gameId = createTestGameId();
+        var store = new HistoryStore(objectMapper, 10);
+        var threads = new ArrayList<Thread>();
+        for (int t = 0; t < 8; t++) {
+            var success = t % 4 == 0;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    store.addGameStep(gameId, testTask, success ? successResult : failureResult);
+                    store.getSuccessRate(testProbability);
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertEquals(0.25, store.getSuccessRate(testProbability));
+        assertEquals(10, store.getHistory().size());
+    }
+
     @Test
     void missingProbabilitySuccessRateIsZero() {
         var gameId = createTestGameId();
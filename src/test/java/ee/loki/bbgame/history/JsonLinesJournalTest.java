@@ -0,0 +1,120 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.gamemodel.Task;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLinesJournalTest {
+    private static final ObjectMapper objectMapper = BBGameMain.createObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private static GameStep step(int i) {
+        return new GameStep("game", new Task("ad" + i, "message" + i, 10 * i, i + 1, "p" + i % 3, 0),
+                new TaskResult(i % 2 == 0, 3, i, i, 0, i, "what" + i));
+    }
+
+    private static List<GameStep> replay(HistoryJournal journal) throws IOException {
+        var result = new ArrayList<GameStep>();
+        journal.replay(result::add);
+        return result;
+    }
+
+    @Test
+    void appendedStepsAreReplayedInOrder() throws IOException, InterruptedException {
+        var file = tempDir.resolve("history.jsonl");
+        try (var journal = new JsonLinesJournal(objectMapper, file, Duration.ofMinutes(1))) {
+            assertEquals(List.of(), replay(journal));
+            journal.append(step(1));
+            journal.append(step(2));
+            journal.flush();
+            assertEquals(2, Files.readAllLines(file).size());
+            journal.append(step(3));
+        }
+
+        assertEquals(List.of(step(1), step(2), step(3)),
+                replay(new JsonLinesJournal(objectMapper, file, Duration.ZERO)));
+    }
+
+    @Test
+    void interruptedCloseStillWritesQueuedSteps() throws IOException {
+        var file = tempDir.resolve("history.jsonl");
+        var journal = new JsonLinesJournal(objectMapper, file, Duration.ofMinutes(1));
+        journal.append(step(1));
+        journal.append(step(2));
+        Thread.currentThread().interrupt();
+        try {
+            journal.close();
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertEquals(List.of(step(1), step(2)), replay(new JsonLinesJournal(objectMapper, file, Duration.ZERO)));
+    }
+
+    @Test
+    void tornLastLineIsCutOff() throws IOException {
+        var file = tempDir.resolve("history.jsonl");
+        try (var journal = new JsonLinesJournal(objectMapper, file, Duration.ZERO)) {
+            journal.append(step(1));
+            journal.append(step(2));
+        }
+        var intactLength = Files.size(file);
+        var torn = objectMapper.writeValueAsString(step(3));
+        Files.writeString(file, torn.substring(0, torn.length() / 2), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (var journal = new JsonLinesJournal(objectMapper, file, Duration.ZERO)) {
+            assertEquals(List.of(step(1), step(2)), replay(journal));
+            assertEquals(intactLength, Files.size(file));
+            journal.append(step(4));
+        }
+        assertEquals(List.of(step(1), step(2), step(4)),
+                replay(new JsonLinesJournal(objectMapper, file, Duration.ZERO)));
+    }
+
+    @Test
+    void damagedLineInTheMiddleIsSkipped() throws IOException {
+        var file = tempDir.resolve("history.jsonl");
+        Files.writeString(file, objectMapper.writeValueAsString(step(1)) + "\n{garbage\n"
+                + objectMapper.writeValueAsString(step(2)) + "\n");
+
+        assertEquals(List.of(step(1), step(2)), replay(new JsonLinesJournal(objectMapper, file, Duration.ZERO)));
+    }
+
+    @Test
+    void storeImportsLegacyHistoryIntoEmptyJournal() throws IOException {
+        var legacyFile = tempDir.resolve("history.json").toString();
+        var legacyStore = new HistoryStore(objectMapper);
+        legacyStore.addGameStep("game", step(1).attemptedTask(), step(1).attemptResult());
+        legacyStore.addGameStep("game", step(2).attemptedTask(), step(2).attemptResult());
+        legacyStore.saveGameHistory(legacyFile);
+
+        var journalFile = tempDir.resolve("history.jsonl");
+        var store = new HistoryStore(objectMapper);
+        store.openJournal(new JsonLinesJournal(objectMapper, journalFile, Duration.ZERO), legacyFile);
+        store.addGameStep("game", step(3).attemptedTask(), step(3).attemptResult());
+        store.closeJournal();
+
+        var reopened = new HistoryStore(objectMapper);
+        reopened.openJournal(new JsonLinesJournal(objectMapper, journalFile, Duration.ZERO), legacyFile);
+        assertEquals(List.of(step(1), step(2), step(3)), reopened.getHistory());
+        assertEquals(store.getSuccessRate("p1"), reopened.getSuccessRate("p1"));
+        reopened.closeJournal();
+    }
+}
@@ -0,0 +1,109 @@
+package ee.loki.bbgame.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.gamemodel.KeywordClass;
+import ee.loki.bbgame.gamemodel.Task;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SuccessRateIndexTest {
+    private static final ObjectMapper objectMapper = BBGameMain.createObjectMapper();
+
+    private static GameStep step(String message, int level, boolean success) {
+        return new GameStep("game", new Task("ad", message, 10, 1, "Gamble", 0),
+                new TaskResult(success, 3, 0, 0, 0, 1, "what"), new DragonState(level, 3, 0));
+    }
+
+    private static void add(SuccessRateIndex index, int count, GameStep gameStep) {
+        for (int i = 0; i < count; i++) {
+            index.add(gameStep);
+        }
+    }
+
+    @Test
+    void keywordClassIsTakenFromFirstWord() {
+        assertEquals(KeywordClass.STEAL, KeywordClass.of("Steal a chicken from Hagar Eymor"));
+        assertEquals(KeywordClass.ADVERTISE, KeywordClass.of("create an advertisement campaign for Quinn Neville"));
+        assertEquals(KeywordClass.KILL, KeywordClass.of("Kill"));
+        assertEquals(KeywordClass.OTHER, KeywordClass.of("Killjoy visits the village"));
+        assertEquals(KeywordClass.OTHER, KeywordClass.of(null));
+    }
+
+    @Test
+    void levelsAreGroupedIntoBands() {
+        assertEquals(0, SuccessRateIndex.levelBand(0));
+        assertEquals(1, SuccessRateIndex.levelBand(1));
+        assertEquals(2, SuccessRateIndex.levelBand(3));
+        assertEquals(3, SuccessRateIndex.levelBand(4));
+        assertEquals(SuccessRateIndex.levelBands - 1, SuccessRateIndex.levelBand(1000));
+    }
+
+    @Test
+    void sparseBucketsFallBackToCoarserOnes() {
+        var index = new SuccessRateIndex(4);
+        add(index, 4, step("Kill the troll", 1, true));
+        add(index, 4, step("Help the baker", 1, false));
+        add(index, 2, step("Steal a cart", 1, true));
+        add(index, 2, step("Help the baker", 8, true));
+        add(index, 8, new GameStep("game", new Task("ad", "Rescue", 10, 1, "Gamble", 0),
+                new TaskResult(false, 3, 0, 0, 0, 1, "what")));
+
+        assertEquals(1.0, index.getSuccessRate("Gamble", 1, KeywordClass.KILL));
+        assertEquals(0.0, index.getSuccessRate("Gamble", 1, KeywordClass.HELP));
+        // 2 steals are too few, level band 1 has 10 steps
+        assertEquals(6.0 / 10.0, index.getSuccessRate("Gamble", 1, KeywordClass.STEAL));
+        // level band 4 has 2 steps only, all 20 steps of probability are used
+        assertEquals(8.0 / 20.0, index.getSuccessRate("Gamble", 8, KeywordClass.HELP));
+        assertEquals(8.0 / 20.0, index.getSuccessRate("Gamble"));
+        assertEquals(0.0, index.getSuccessRate("Impossible", 1, KeywordClass.KILL));
+    }
+
+    @Test
+    void bucketsRecreateSameIndex() throws IOException {
+        var index = new SuccessRateIndex(1);
+        add(index, 3, step("Kill the troll", 1, true));
+        add(index, 1, step("Kill the troll", 5, false));
+        add(index, 2, step("Escort the king", 5, true));
+
+        var buckets = new ArrayList<HistorySnapshot.Bucket>();
+        index.forEachBucket(buckets::add);
+        var json = objectMapper.writeValueAsString(new HistorySnapshot("journal", 0, buckets));
+        var restored = new SuccessRateIndex(1);
+        objectMapper.readValue(json, HistorySnapshot.class).buckets().forEach(restored::add);
+
+        assertEquals(1.0, restored.getSuccessRate("Gamble", 5, KeywordClass.ESCORT));
+        for (var keywordClass : KeywordClass.values()) {
+            for (int level = 0; level < 20; level++) {
+                assertEquals(index.getSuccessRate("Gamble", level, keywordClass),
+                        restored.getSuccessRate("Gamble", level, keywordClass));
+            }
+        }
+    }
+
+    @Test
+    void countsBeyond32BitsKeepSuccessRate() {
+        var index = new SuccessRateIndex(1);
+        index.add(new HistorySnapshot.Bucket("Gamble", null, null, 1L << 32, 3L << 32));
+        assertEquals(0.25, index.getSuccessRate("Gamble"));
+        // failures added to a full counter do not turn into successes
+        index.add(new HistorySnapshot.Bucket("Gamble", null, null, 0, 1L << 32));
+        assertTrue(index.getSuccessRate("Gamble") < 0.25);
+        assertThrows(IllegalArgumentException.class,
+                () -> index.add(new HistorySnapshot.Bucket("Gamble", null, null, -1, 1)));
+    }
+
+    @Test
+    void historyWithoutDragonStateIsRead() throws IOException {
+        var gameStep = objectMapper.readValue("""
+                {"gameId":"g","attemptedTask":{"adId":"a","message":"Kill","reward":1,"expiresIn":1,
+                "probability":"Gamble","encrypted":0},"attemptResult":{"success":true,"lives":1,"gold":0,"score":0,
+                "highScore":0,"turn":1,"message":"ok"}}""", GameStep.class);
+        assertNull(gameStep.dragonState());
+    }
+}
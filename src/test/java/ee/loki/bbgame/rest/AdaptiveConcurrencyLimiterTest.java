@@ -0,0 +1,104 @@
+package ee.loki.bbgame.rest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+    private static final long ms = 1_000_000;
+
+    // keeps limiter full and releases one request with given latency
+    private static void fullLoadSample(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        while (limiter.getInFlight() < limiter.getLimit()) {
+            limiter.acquire("game");
+        }
+        limiter.release(rttNanos, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+    }
+
+    @Test
+    void limitGrowsWhileLatencyStaysLow() {
+        var limiter = new AdaptiveConcurrencyLimiter(10, 2, 100);
+        for (int i = 0; i < 50; i++) {
+            fullLoadSample(limiter, 10 * ms);
+        }
+        assertTrue(limiter.getLimit() > 20, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void limitDoesNotGrowWhenMostlyIdle() {
+        var limiter = new AdaptiveConcurrencyLimiter(10, 2, 100);
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire("game");
+            limiter.release(10 * ms, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void limitShrinksWhenLatencyClimbs() {
+        var limiter = new AdaptiveConcurrencyLimiter(50, 2, 100);
+        fullLoadSample(limiter, 10 * ms);
+        var before = limiter.getLimit();
+        for (int i = 0; i < 20; i++) {
+            fullLoadSample(limiter, 100 * ms);
+        }
+        assertTrue(limiter.getLimit() < before / 2, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void droppedRequestsCutLimitDownToMinimum() {
+        var limiter = new AdaptiveConcurrencyLimiter(10, 2, 100);
+        limiter.acquire("game");
+        limiter.release(0, AdaptiveConcurrencyLimiter.Outcome.DROPPED);
+        assertEquals(9, limiter.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire("game");
+            limiter.release(0, AdaptiveConcurrencyLimiter.Outcome.DROPPED);
+        }
+        assertEquals(2, limiter.getLimit());
+        assertEquals(101, limiter.getDroppedRequests());
+    }
+
+    @Test
+    void waitersAreServedRoundRobinAcrossKeys() {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        limiter.acquire("busy");
+        var busy = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < 3; i++) {
+            busy.add(limiter.acquire("busy"));
+        }
+        var other = limiter.acquire("other");
+        assertEquals(4, limiter.getWaiting());
+
+        limiter.release(0, AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        assertTrue(busy.get(0).isDone());
+        assertFalse(other.isDone());
+
+        limiter.release(0, AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        assertTrue(other.isDone());
+        assertFalse(busy.get(1).isDone());
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(2, limiter.getWaiting());
+    }
+
+    @Test
+    void cancelledWaiterIsSkipped() {
+        var limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        limiter.acquire("a");
+        var second = limiter.acquire("b");
+        var third = limiter.acquire("c");
+        second.cancel(false);
+
+        limiter.release(0, AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        assertTrue(third.isDone());
+        assertFalse(third.isCancelled());
+        assertEquals(1, limiter.getInFlight());
+
+        limiter.release(0, AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,61 @@
+package ee.loki.bbgame.rest;
+
+import ee.loki.bbgame.BBGameConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveLimitHttpClientTest {
+    private static final String testUrl = "http://localhost:666/testapi";
+
+    private final HttpClientMock httpClientMock = new HttpClientMock();
+    private final AdaptiveLimitHttpClient client;
+
+    AdaptiveLimitHttpClientTest() {
+        var props = new Properties();
+        props.setProperty("serverUrl", testUrl);
+        props.setProperty("adaptiveLimitInitial", "4");
+        client = new AdaptiveLimitHttpClient(httpClientMock, new BBGameConfig(props));
+    }
+
+    private static HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(testUrl + path)).GET().build();
+    }
+
+    @Test
+    void queueKeyIsGameId() {
+        assertEquals("game1", client.queueKey(get("/game1/shop")));
+        assertEquals("game1", client.queueKey(get("/game1/solve/ad")));
+        assertEquals("game", client.queueKey(get("/game/start")));
+    }
+
+    @Test
+    void permitIsReleasedAfterSyncAndAsyncRequests() throws IOException, InterruptedException, ExecutionException {
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET", testUrl + "/game1/shop", "[]"));
+        httpClientMock.addPlannedResponse(new HttpClientMock.PlannedResponse(503, "GET", testUrl + "/game1/shop", "busy"));
+
+        assertEquals(200, client.send(get("/game1/shop"), HttpResponse.BodyHandlers.ofString()).statusCode());
+        assertEquals(503, client.sendAsync(get("/game1/shop"), HttpResponse.BodyHandlers.ofString()).get().statusCode());
+
+        assertEquals(0, client.getInFlight());
+        assertEquals(0, client.getQueued());
+        assertEquals(3, client.getLimit());
+    }
+
+    @Test
+    void permitIsReleasedAfterIoFailure() {
+        var failure = new HttpClientMock.PlannedResponse(200, "GET", testUrl + "/game1/shop", null);
+        failure.setExceptionToThrow(new IOException("reset"));
+        httpClientMock.addPlannedResponse(failure);
+
+        assertThrows(IOException.class, () -> client.send(get("/game1/shop"), HttpResponse.BodyHandlers.ofString()));
+        assertEquals(0, client.getInFlight());
+    }
+}
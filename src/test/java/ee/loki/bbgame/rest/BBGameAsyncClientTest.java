@@ -0,0 +1,131 @@
+package ee.loki.bbgame.rest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import ee.loki.bbgame.BBGameConfig;
+import ee.loki.bbgame.BBGameMain;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BBGameAsyncClientTest {
+    private static final String testUrl = "http://localhost:666/testapi";
+    private static final String testGameId = "testGameId";
+
+    private final HttpClientMock httpClient;
+    private final BBGameAsyncClient client;
+
+    BBGameAsyncClientTest() {
+        var objectMapper = BBGameMain.createObjectMapper();
+        httpClient = new HttpClientMock();
+        var props = new Properties();
+        props.setProperty("serverUrl", testUrl);
+        props.setProperty("retryBaseDelayMs", "1");
+
+        var config = new BBGameConfig(props);
+        client = new BBGameAsyncClient(config, objectMapper, httpClient);
+    }
+
+    @Test
+    void getTasksCallCorrect() throws ExecutionException, InterruptedException {
+        httpClient.setHttpStatusCodeToReturn(200);
+        httpClient.setMethodToExpect("GET");
+        httpClient.setURLToExpect(testUrl+"/" + testGameId + "/messages");
+        httpClient.setBodyToReturn(
+                """
+                [
+                    {
+                        "adId": "CPBAbShn",
+                        "message": "Create an advertisement campaign for Hagar Eymor to promote their bucket based business",
+                        "reward": 35,
+                        "expiresIn": 6,
+                        "encrypted": null,
+                        "probability": "Hmmm...."
+                    },
+                    {
+                        "adId": "garbage",
+                        "message": "garbage",
+                        "reward": 35,
+                        "expiresIn": 6,
+                        "encrypted": 7,
+                        "probability": "garbage"
+                    }
+                ]
+                """
+        );
+        var result = client.getTasks(testGameId).get();
+        assertEquals(1, result.size());
+        assertEquals("CPBAbShn", result.getFirst().adId());
+    }
+
+    @Test
+    void tryResolveTaskCallCorrect() throws ExecutionException, InterruptedException {
+        var testAdId = "test AdId";
+        var testAdIdEncoded = "test+AdId";
+
+        httpClient.setHttpStatusCodeToReturn(200);
+        httpClient.setMethodToExpect("POST");
+        httpClient.setURLToExpect(testUrl+"/" + testGameId + "/solve/" + testAdIdEncoded);
+        httpClient.setBodyToReturn(
+                """
+                {
+                "success": true,
+                "lives": 3,
+                "gold": 10,
+                "score": 10,
+                "highScore": 0,
+                "turn": 2,
+                "message": "You successfully solved the mission!"
+                }
+                """
+        );
+        var result = client.tryResolveTask(testGameId, testAdId).get();
+        assertTrue(result.success());
+        assertEquals(3, result.lives());
+        assertEquals(10, result.score());
+    }
+
+    @Test
+    void not200StatusCodeFails() {
+        httpClient.setMethodToExpect("POST");
+        httpClient.setURLToExpect(testUrl+"/game/start");
+        httpClient.setHttpStatusCodeToReturn(400);
+
+        var exception = assertThrows(ExecutionException.class, () -> client.startNewGame().get());
+        assertInstanceOf(RuntimeException.class, exception.getCause());
+    }
+
+    @Test
+    void getIsRetriedOnServerError() throws ExecutionException, InterruptedException {
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(503, "GET",
+                testUrl + "/" + testGameId + "/messages", "busy"));
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET",
+                testUrl + "/" + testGameId + "/messages", "[]"));
+
+        assertEquals(0, client.getAds(testGameId).get().length);
+    }
+
+    @Test
+    void invalidResponseFails() {
+        httpClient.setMethodToExpect("POST");
+        httpClient.setURLToExpect(testUrl+"/game/start");
+        httpClient.setHttpStatusCodeToReturn(200);
+        httpClient.setBodyToReturn("not a json");
+
+        var exception = assertThrows(ExecutionException.class, () -> client.startNewGame().get());
+        assertInstanceOf(JsonParseException.class, exception.getCause());
+    }
+
+    @Test
+    void ioExceptionFails() {
+        httpClient.setMethodToExpect("POST");
+        httpClient.setExceptionToThrow(new IOException());
+        httpClient.setURLToExpect(testUrl+"/game/start");
+
+        var exception = assertThrows(ExecutionException.class, () -> client.startNewGame().get());
+        assertInstanceOf(IOException.class, exception.getCause());
+    }
+}
@@ -22,6 +22,7 @@ public class BBGameClientTest {
         httpClient = new HttpClientMock();
         var props = new Properties();
         props.setProperty("serverUrl", testUrl);
+        props.setProperty("retryBaseDelayMs", "1");
 
         var config = new BBGameConfig(props);
         client = new BBGameClient(config, objectMapper, httpClient);
@@ -106,6 +107,87 @@ public class BBGameClientTest {
         assertEquals(100, result[2].cost());
     }
 
+    private static final String shopItems = """
+            [
+                {
+                    "id": "hpot",
+                    "name": "Healing potion",
+                    "cost": 50
+                }
+            ]
+            """;
+
+    private static final String boughtItem = """
+            {
+                "shoppingSuccess": true,
+                "gold": 16,
+                "lives": 4,
+                "level": 0,
+                "turn": 3
+            }
+            """;
+
+    @Test
+    void getShopItemsIsCachedPerGame() throws IOException, InterruptedException {
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET",
+                testUrl + "/" + testGameId + "/shop", shopItems));
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET",
+                testUrl + "/otherGameId/shop", shopItems));
+
+        assertEquals("hpot", client.getShopItems(testGameId)[0].id());
+        assertEquals("hpot", client.getShopItems(testGameId)[0].id());
+        assertEquals("hpot", client.getShopItems("otherGameId")[0].id());
+        assertEquals(0, httpClient.getPlannedResponsesLeft());
+    }
+
+    @Test
+    void getShopItemsCacheIsInvalidatedBySuccessfulPurchase() throws IOException, InterruptedException {
+        var props = new Properties();
+        props.setProperty("serverUrl", testUrl);
+        var config = new BBGameConfig(props);
+        var cache = new ShopCatalogCache(config.shopCacheTtlTurns);
+        var cachingClient = new BBGameClient(config, BBGameMain.createObjectMapper(), httpClient, cache,
+                new CircuitBreaker(config.circuitFailureThreshold, config.circuitOpenDuration));
+
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET",
+                testUrl + "/" + testGameId + "/shop", shopItems));
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "POST",
+                testUrl + "/" + testGameId + "/shop/buy/hpot", boughtItem));
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET",
+                testUrl + "/" + testGameId + "/shop", shopItems));
+
+        cachingClient.getShopItems(testGameId);
+        cachingClient.tryBuyItem(testGameId, "hpot");
+        cachingClient.getShopItems(testGameId);
+        cachingClient.getShopItems(testGameId);
+        // catalog is fetched again after purchase, only the last lookup is served from cache
+        assertEquals(0, httpClient.getPlannedResponsesLeft());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void getShopItemsCacheExpiresAfterTtlTurns() throws IOException, InterruptedException {
+        var props = new Properties();
+        props.setProperty("serverUrl", testUrl);
+        props.setProperty("shopCacheTtlTurns", "1");
+        var cache = new ShopCatalogCache(1);
+        var config = new BBGameConfig(props);
+        var ttlClient = new BBGameClient(config, BBGameMain.createObjectMapper(), httpClient, cache,
+                new CircuitBreaker(config.circuitFailureThreshold, config.circuitOpenDuration));
+
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET",
+                testUrl + "/" + testGameId + "/shop", shopItems));
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET",
+                testUrl + "/" + testGameId + "/shop", shopItems));
+
+        ttlClient.getShopItems(testGameId);
+        ttlClient.getShopItems(testGameId);
+        ttlClient.getShopItems(testGameId);
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
     @Test
     void tryBuyItemCallCorrect() throws IOException, InterruptedException {
         var testItemId = "testItemId";
@@ -205,6 +287,97 @@ public class BBGameClientTest {
         assertThrows(RuntimeException.class, client::startNewGame);
     }
 
+    @Test
+    void not200StatusCodeMessageContainsBody() {
+        httpClient.setMethodToExpect("GET");
+        httpClient.setURLToExpect(testUrl+"/" + testGameId + "/shop");
+        httpClient.setHttpStatusCodeToReturn(410);
+        httpClient.setBodyToReturn("{\"status\": \"Game Over\"}");
+
+        var exception = assertThrows(RuntimeException.class, () -> client.getShopItems(testGameId));
+        assertEquals("Response status code: 410-{\"status\": \"Game Over\"}", exception.getMessage());
+    }
+
+    @Test
+    void nonAsciiResponseIsDecodedAsUtf8() throws IOException, InterruptedException {
+        httpClient.setHttpStatusCodeToReturn(200);
+        httpClient.setMethodToExpect("GET");
+        httpClient.setURLToExpect(testUrl+"/" + testGameId + "/shop");
+        httpClient.setBodyToReturn("[{\"id\": \"mõõk\", \"name\": \"Mõõk ⚔\", \"cost\": 100}]");
+
+        var result = client.getShopItems(testGameId);
+        assertEquals("mõõk", result[0].id());
+        assertEquals("Mõõk ⚔", result[0].name());
+    }
+
+    @Test
+    void getIsRetriedOnServerError() throws IOException, InterruptedException {
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(503, "GET",
+                testUrl + "/" + testGameId + "/shop", "busy"));
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(500, "GET",
+                testUrl + "/" + testGameId + "/shop", "oops"));
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET",
+                testUrl + "/" + testGameId + "/shop", shopItems));
+
+        assertEquals("hpot", client.getShopItems(testGameId)[0].id());
+    }
+
+    @Test
+    void getIsRetriedOnIoException() throws IOException, InterruptedException {
+        var failure = new HttpClientMock.PlannedResponse(200, "GET", testUrl + "/" + testGameId + "/shop", null);
+        failure.setExceptionToThrow(new IOException("connection reset"));
+        httpClient.addPlannedResponse(failure);
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "GET",
+                testUrl + "/" + testGameId + "/shop", shopItems));
+
+        assertEquals("hpot", client.getShopItems(testGameId)[0].id());
+    }
+
+    @Test
+    void getRetriesGiveUpAfterMaxAttempts() {
+        for (int i = 0; i < Integer.parseInt(BBGameConfig.defaultRetryMaxAttempts); i++) {
+            httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(502, "GET",
+                    testUrl + "/" + testGameId + "/shop", "bad gateway"));
+        }
+
+        var exception = assertThrows(RuntimeException.class, () -> client.getShopItems(testGameId));
+        assertEquals("Response status code: 502-bad gateway", exception.getMessage());
+    }
+
+    @Test
+    void postIsNotRetriedOnServerError() {
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(500, "POST",
+                testUrl + "/" + testGameId + "/solve/ad1", "oops"));
+
+        assertThrows(RuntimeException.class, () -> client.tryResolveTask(testGameId, "ad1"));
+    }
+
+    @Test
+    void postIsRetriedWhenServerRejectsIt() throws IOException, InterruptedException {
+        var rejected = new HttpClientMock.PlannedResponse(429, "POST",
+                testUrl + "/" + testGameId + "/shop/buy/hpot", "slow down");
+        rejected.setHeader("Retry-After", "0");
+        httpClient.addPlannedResponse(rejected);
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "POST",
+                testUrl + "/" + testGameId + "/shop/buy/hpot", boughtItem));
+
+        assertTrue(client.tryBuyItem(testGameId, "hpot").shoppingSuccess());
+    }
+
+    @Test
+    void postIsNotRetriedWhenRetryAfterExceedsMaxDelay() {
+        var rejected = new HttpClientMock.PlannedResponse(429, "POST",
+                testUrl + "/" + testGameId + "/shop/buy/hpot", "slow down");
+        rejected.setHeader("Retry-After", "3600");
+        httpClient.addPlannedResponse(rejected);
+        httpClient.addPlannedResponse(new HttpClientMock.PlannedResponse(200, "POST",
+                testUrl + "/" + testGameId + "/shop/buy/hpot", boughtItem));
+
+        var exception = assertThrows(RuntimeException.class, () -> client.tryBuyItem(testGameId, "hpot"));
+        assertEquals("Response status code: 429-slow down", exception.getMessage());
+        assertEquals(1, httpClient.getPlannedResponsesLeft());
+    }
+
     @Test
     void invalidResponseThrows() {
         httpClient.setMethodToExpect("POST");
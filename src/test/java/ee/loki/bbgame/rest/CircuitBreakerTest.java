@@ -0,0 +1,62 @@
+package ee.loki.bbgame.rest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+    @Test
+    void opensAfterConsecutiveFailures() {
+        var breaker = new CircuitBreaker(3, Duration.ofMinutes(1));
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.permissionDelayNanos());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.permissionDelayNanos() > 0);
+        assertEquals(1, breaker.getTimesOpened());
+    }
+
+    @Test
+    void singleProbeIsLetThroughAfterOpenPeriod() {
+        var breaker = new CircuitBreaker(1, Duration.ZERO);
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        assertEquals(0, breaker.permissionDelayNanos());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedProbeOpensCircuitAgain() {
+        var breaker = new CircuitBreaker(1, Duration.ofMillis(1));
+        breaker.onFailure();
+        while (breaker.permissionDelayNanos() > 0) {
+            Thread.onSpinWait();
+        }
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getTimesOpened());
+    }
+
+    @Test
+    void zeroThresholdNeverOpens() {
+        var breaker = new CircuitBreaker(0, Duration.ofMinutes(1));
+        for (int i = 0; i < 100; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
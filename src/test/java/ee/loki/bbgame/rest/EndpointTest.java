@@ -0,0 +1,32 @@
+package ee.loki.bbgame.rest;
+
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import org.junit.jupiter.api.Test;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointTest {
+    @Test
+    void encodePathArgMatchesUrlEncoder() {
+        for (var arg : new String[]{"CPBAbShn", "a-b_c.d*e", "test AdId", "test/GameId", "õun+ä", "", "%41"}) {
+            assertEquals(URLEncoder.encode(arg, StandardCharsets.UTF_8), Endpoint.encodePathArg(arg));
+        }
+    }
+
+    @Test
+    void plainIdIsNotCopied() {
+        var arg = "CPBAbShn";
+        assertSame(arg, Endpoint.encodePathArg(arg));
+    }
+
+    @Test
+    void urlAppendsEncodedArgument() {
+        var endpoint = Endpoint.perGame(BBGameMain.createObjectMapper(), Endpoint.Method.POST, "/solve/", TaskResult.class);
+        assertEquals("http://server/game1/solve/ad+1", endpoint.url("http://server/game1", "ad 1"));
+        assertEquals("http://server/game1/solve/", endpoint.url("http://server/game1", ""));
+    }
+}
@@ -0,0 +1,39 @@
+package ee.loki.bbgame.rest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostRequestLimiterTest {
+    @Test
+    void permitsAreGrantedUpToLimit() {
+        var limiter = new HostRequestLimiter(2);
+        assertTrue(limiter.acquire().isDone());
+        assertTrue(limiter.acquire().isDone());
+        var third = limiter.acquire();
+        assertFalse(third.isDone());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getWaiting());
+
+        limiter.release();
+        assertTrue(third.isDone());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    void waitersAreServedInOrderAndCancelledOnesSkipped() {
+        var limiter = new HostRequestLimiter(1);
+        limiter.acquire();
+        var second = limiter.acquire();
+        var third = limiter.acquire();
+        second.cancel(false);
+
+        limiter.release();
+        assertTrue(third.isDone());
+        assertFalse(third.isCancelled());
+
+        limiter.release();
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -1,17 +1,18 @@
 package ee.loki.bbgame.rest;
 
+import ee.loki.bbgame.simulator.SimulatedHttpResponse;
 import org.junit.jupiter.api.AssertionFailureBuilder;
 
-import javax.net.ssl.SSLSession;
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class HttpClientMock  implements IHttpClient {
     private final List<PlannedResponse> plannedResponses = new ArrayList<>();
@@ -22,6 +23,7 @@ public class HttpClientMock  implements IHttpClient {
         private String urlToExpect = "";
         private String methodToExpect = "GET";
         private IOException exceptionToThrow = null;
+        private final Map<String, List<String>> headersToReturn = new HashMap<>();
 
         public PlannedResponse(int httpStatusCodeToReturn, String methodToExpect, String urlToExpect, String bodyToReturn) {
             this.httpStatusCodeToReturn = httpStatusCodeToReturn;
@@ -31,6 +33,14 @@ public class HttpClientMock  implements IHttpClient {
         }
 
         private PlannedResponse() {}
+
+        public void setExceptionToThrow(IOException exceptionToThrow) {
+            this.exceptionToThrow = exceptionToThrow;
+        }
+
+        public void setHeader(String name, String value) {
+            headersToReturn.put(name, List.of(value));
+        }
     }
 
     private PlannedResponse singleCall() {
@@ -47,6 +57,11 @@ public class HttpClientMock  implements IHttpClient {
         plannedResponses.add(plannedResponse);
     }
 
+    // planned responses no request has used yet
+    public int getPlannedResponsesLeft() {
+        return plannedResponses.size();
+    }
+
     public void clearPlannedResponses() {
         plannedResponses.clear();
     }
@@ -93,47 +108,19 @@ public class HttpClientMock  implements IHttpClient {
                     .buildAndThrow();
         }
 
-        return new HttpResponse<>() {
-            @Override
-            public int statusCode() {
-                return nextResponse.httpStatusCodeToReturn;
-            }
-
-            @Override
-            public HttpRequest request() {
-                return null;
-            }
-
-            @Override
-            public Optional<HttpResponse<T>> previousResponse() {
-                return Optional.empty();
-            }
-
-            @Override
-            public HttpHeaders headers() {
-                return null;
-            }
-
-            @Override
-            @SuppressWarnings("unchecked")
-            public T body() {
-                return (T) nextResponse.bodyToReturn;
-            }
-
-            @Override
-            public Optional<SSLSession> sslSession() {
-                return Optional.empty();
-            }
-
-            @Override
-            public URI uri() {
-                return request.uri();
-            }
-
-            @Override
-            public HttpClient.Version version() {
-                return request.version().isPresent() ? request.version().get() : null;
-            }
-        };
+        var headers = HttpHeaders.of(nextResponse.headersToReturn, (name, value) -> true);
+        var body = nextResponse.bodyToReturn == null
+                ? new byte[0]
+                : nextResponse.bodyToReturn.getBytes(StandardCharsets.UTF_8);
+        return SimulatedHttpResponse.of(request, nextResponse.httpStatusCodeToReturn, headers, body, responseBodyHandler);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+        try {
+            return CompletableFuture.completedFuture(send(request, responseBodyHandler));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 }
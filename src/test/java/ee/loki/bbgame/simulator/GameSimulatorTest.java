@@ -0,0 +1,94 @@
+package ee.loki.bbgame.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.gamemodel.Ad;
+import ee.loki.bbgame.gamemodel.NewGame;
+import ee.loki.bbgame.gamemodel.ShoppingResult;
+import ee.loki.bbgame.gamemodel.TaskResult;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSimulatorTest {
+    private final ObjectMapper objectMapper = BBGameMain.createObjectMapper();
+
+    private <T> T read(GameSimulator.Response response, Class<T> type) throws IOException {
+        assertEquals(200, response.statusCode(), new String(response.body()));
+        return objectMapper.readValue(response.body(), type);
+    }
+
+    @Test
+    void sameSeedGivesSameGames() throws IOException {
+        var first = new GameSimulator(7, objectMapper);
+        var second = new GameSimulator(7, objectMapper);
+        var gameId = read(first.handle("POST", "/game/start"), NewGame.class).gameId();
+        assertEquals(gameId, read(second.handle("POST", "/game/start"), NewGame.class).gameId());
+
+        for (int turn = 0; turn < 5; turn++) {
+            var ads = read(first.handle("GET", "/" + gameId + "/messages"), Ad[].class);
+            assertArrayEquals(ads, read(second.handle("GET", "/" + gameId + "/messages"), Ad[].class));
+
+            var adId = ads[0].toTask().adId();
+            var result = read(first.handle("POST", "/" + gameId + "/solve/" + adId), TaskResult.class);
+            assertEquals(result, read(second.handle("POST", "/" + gameId + "/solve/" + adId), TaskResult.class));
+            if (result.lives() == 0) {
+                break;
+            }
+        }
+    }
+
+    @Test
+    void boardHasPlainAndEncryptedAds() throws IOException {
+        var simulator = new GameSimulator(1, objectMapper);
+        var encryptions = new boolean[3];
+        for (int i = 0; i < 20; i++) {
+            var gameId = read(simulator.handle("POST", "/game/start"), NewGame.class).gameId();
+            for (var ad : read(simulator.handle("GET", "/" + gameId + "/messages"), Ad[].class)) {
+                encryptions[ad.encrypted()] = true;
+                if (ad.encrypted() == 1) {
+                    assertTrue(ad.toTask().probability().chars().allMatch(c -> c >= ' ' && c < 127));
+                }
+            }
+        }
+        assertArrayEquals(new boolean[]{true, true, true}, encryptions);
+        assertEquals("Uryyb, Jbeyq!", SimulatedGame.rot13("Hello, World!"));
+    }
+
+    @Test
+    void invalidRequestsAreRejected() throws IOException {
+        var simulator = new GameSimulator(1, objectMapper);
+        var gameId = read(simulator.handle("POST", "/game/start"), NewGame.class).gameId();
+
+        assertEquals(400, simulator.handle("POST", "/" + gameId + "/solve/missing").statusCode());
+        assertEquals(400, simulator.handle("POST", "/" + gameId + "/shop/buy/missing").statusCode());
+        assertEquals(404, simulator.handle("GET", "/" + gameId + "/unknown").statusCode());
+        assertEquals(410, simulator.handle("GET", "/missing/messages").statusCode());
+
+        var result = read(simulator.handle("POST", "/" + gameId + "/shop/buy/hpot"), ShoppingResult.class);
+        assertFalse(result.shoppingSuccess());
+        assertEquals(0, result.turn());
+    }
+
+    @Test
+    void gameIsRemovedWhenLivesRunOut() throws IOException {
+        var simulator = new GameSimulator(3, objectMapper);
+        var gameId = read(simulator.handle("POST", "/game/start"), NewGame.class).gameId();
+        var lives = SimulatedGame.startingLives;
+        while (lives > 0) {
+            var ads = read(simulator.handle("GET", "/" + gameId + "/messages"), Ad[].class);
+            var riskiest = ads[0];
+            for (var ad : ads) {
+                if (ad.encrypted() == 0 && (riskiest.encrypted() != 0 || ad.reward() > riskiest.reward())) {
+                    riskiest = ad;
+                }
+            }
+            lives = read(simulator.handle("POST", "/" + gameId + "/solve/" + riskiest.adId()), TaskResult.class).lives();
+        }
+
+        assertEquals(0, simulator.getActiveGames());
+        assertEquals(410, simulator.handle("GET", "/" + gameId + "/messages").statusCode());
+    }
+}
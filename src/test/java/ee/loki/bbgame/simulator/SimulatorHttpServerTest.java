@@ -0,0 +1,52 @@
+package ee.loki.bbgame.simulator;
+
+import ee.loki.bbgame.BBGameConfig;
+import ee.loki.bbgame.BBGameMain;
+import ee.loki.bbgame.rest.BBGameClient;
+import ee.loki.bbgame.rest.HttpClientWrapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulatorHttpServerTest {
+    @Test
+    void gameCanBePlayedOverHttp() throws IOException, InterruptedException {
+        var objectMapper = BBGameMain.createObjectMapper();
+        var simulator = new GameSimulator(5, objectMapper);
+        try (var server = new SimulatorHttpServer(simulator, new BBGameConfig(new Properties()), 0)) {
+            server.start();
+            assertTrue(server.getServerUrl().endsWith("/api/v2"));
+
+            var props = new Properties();
+            props.setProperty("serverUrl", server.getServerUrl());
+            props.setProperty("httpExecutor", "fixed");
+            var config = new BBGameConfig(props);
+            try (var httpClient = new HttpClientWrapper(config)) {
+                var client = new BBGameClient(config, objectMapper, httpClient);
+
+                var game = client.startNewGame();
+                var ads = client.getAds(game.gameId());
+                assertEquals(SimulatedGame.boardSize, ads.length);
+                assertEquals(GameSimulator.shopItems.length, client.getShopItems(game.gameId()).length);
+
+                var result = client.tryResolveTask(game.gameId(), ads[0].toTask().adId());
+                assertEquals(1, result.turn());
+                assertEquals(4, simulator.getRequestsHandled());
+                // plain http requests are not reported as reusing TLS connections
+                assertEquals(4, httpClient.getRequestsSent());
+                assertEquals(0, httpClient.getTlsRequestsSent());
+                assertEquals(0, httpClient.getTlsConnectionsReused());
+            }
+            // threads of fixed executor are stopped with the client
+            for (var thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().matches("http-\\d+")) {
+                    thread.join(5000);
+                    assertFalse(thread.isAlive(), thread.getName());
+                }
+            }
+        }
+    }
+}